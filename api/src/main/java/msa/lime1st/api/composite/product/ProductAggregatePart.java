@@ -0,0 +1,87 @@
+package msa.lime1st.api.composite.product;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 스트리밍 응답(application/x-ndjson, text/event-stream)의 한 조각.
+ * type 에 따라 product 정보, recommendation, review, serviceAddresses 중 하나만 채워진다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductAggregatePart(
+    Type type,
+    int productId,
+    String name,
+    Integer weight,
+    RecommendationSummary recommendation,
+    ReviewSummary review,
+    ServiceAddresses serviceAddresses
+) {
+
+    public enum Type {
+        PRODUCT,
+        RECOMMENDATION,
+        REVIEW,
+        SERVICE_ADDRESSES,
+    }
+
+    public static ProductAggregatePart product(
+        int productId,
+        String name,
+        int weight
+    ) {
+        return new ProductAggregatePart(
+            Type.PRODUCT,
+            productId,
+            name,
+            weight,
+            null,
+            null,
+            null
+        );
+    }
+
+    public static ProductAggregatePart recommendation(
+        int productId,
+        RecommendationSummary recommendation
+    ) {
+        return new ProductAggregatePart(
+            Type.RECOMMENDATION,
+            productId,
+            null,
+            null,
+            recommendation,
+            null,
+            null
+        );
+    }
+
+    public static ProductAggregatePart review(
+        int productId,
+        ReviewSummary review
+    ) {
+        return new ProductAggregatePart(
+            Type.REVIEW,
+            productId,
+            null,
+            null,
+            null,
+            review,
+            null
+        );
+    }
+
+    public static ProductAggregatePart serviceAddresses(
+        int productId,
+        ServiceAddresses serviceAddresses
+    ) {
+        return new ProductAggregatePart(
+            Type.SERVICE_ADDRESSES,
+            productId,
+            null,
+            null,
+            null,
+            null,
+            serviceAddresses
+        );
+    }
+}
@@ -1,14 +1,25 @@
 package msa.lime1st.api.composite.product;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
+/**
+ * @param nextReviewAfter reviews 에는 review 서비스의 첫 페이지만 담는다. 첫 페이지가 가득 차 review 가 더 있을 수 있으면
+ *                        마지막 reviewId 이고, 나머지는 review 서비스의 GET /review?productId=&after= 로 조회한다.
+ *                        모두 담았으면 null
+ * @param missing core 서비스가 응답하지 않아 빈 목록으로 채운 항목("recommendations", "reviews")과
+ *                product 서비스 대신 fallback 저장소에서 가져온 "product". 모두 받았으면 null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ProductAggregateResponse (
     int productId,
     String name,
     int weight,
     List<RecommendationSummary> recommendations,
     List<ReviewSummary> reviews,
-    ServiceAddresses serviceAddresses
+    Integer nextReviewAfter,
+    ServiceAddresses serviceAddresses,
+    List<String> missing
 ) {
 
     public static ProductAggregateResponse of(
@@ -18,6 +29,48 @@ public record ProductAggregateResponse (
         List<RecommendationSummary> recommendations,
         List<ReviewSummary> reviews,
         ServiceAddresses serviceAddresses
+    ) {
+        return of(
+            productId,
+            name,
+            weight,
+            recommendations,
+            reviews,
+            serviceAddresses,
+            null
+        );
+    }
+
+    public static ProductAggregateResponse of(
+        int productId,
+        String name,
+        int weight,
+        List<RecommendationSummary> recommendations,
+        List<ReviewSummary> reviews,
+        ServiceAddresses serviceAddresses,
+        List<String> missing
+    ) {
+        return of(
+            productId,
+            name,
+            weight,
+            recommendations,
+            reviews,
+            null,
+            serviceAddresses,
+            missing
+        );
+    }
+
+    public static ProductAggregateResponse of(
+        int productId,
+        String name,
+        int weight,
+        List<RecommendationSummary> recommendations,
+        List<ReviewSummary> reviews,
+        Integer nextReviewAfter,
+        ServiceAddresses serviceAddresses,
+        List<String> missing
     ) {
         return new ProductAggregateResponse(
             productId,
@@ -25,7 +78,9 @@ public record ProductAggregateResponse (
             weight,
             recommendations,
             reviews,
-            serviceAddresses
+            nextReviewAfter,
+            serviceAddresses,
+            missing == null || missing.isEmpty() ? null : List.copyOf(missing)
         );
     }
 }
@@ -5,7 +5,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @SecurityRequirement(name = "security_auth")
@@ -43,6 +46,7 @@ public interface ProductCompositeApi {
      * Sample usage: "curl $HOST:$PORT/product-composite/1".
      *
      * @param productId id of the product
+     * @param fields    fields to include, e.g. "reviews.reviewId,serviceAddresses". All fields if not given
      * @return the composite product info, if found, else null
      */
     @Operation(
@@ -58,9 +62,48 @@ public interface ProductCompositeApi {
     Mono<ProductAggregateResponse> getProduct(
         @PathVariable("productId") int productId,
         @RequestParam(value = "delay", required = false, defaultValue = "0") int delay,
-        @RequestParam(value = "faultPercent", required = false, defaultValue = "0") int faultPercent
+        @RequestParam(value = "faultPercent", required = false, defaultValue = "0") int faultPercent,
+        @RequestParam(value = "fields", required = false) List<String> fields
     );
 
+    /**
+     * Sample usage: "curl -H "Accept: application/x-ndjson" $HOST:$PORT/product-composite/1".
+     * <p>
+     * product 정보를 먼저 보내고, recommendation 과 review 는 도착하는 대로 한 건씩 보낸다.
+     *
+     * @param productId id of the product
+     * @return the parts of the composite product info, product first
+     */
+    @Operation(
+        summary = "${api.product-composite.get-composite-product-stream.description}",
+        description = "${api.product-composite.get-composite-product-stream.notes}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "${api.responseCodes.ok.description}"),
+        @ApiResponse(responseCode = "404", description = "${api.responseCodes.notFound.description}"),
+        @ApiResponse(responseCode = "422", description = "${api.responseCodes.unprocessableEntity.description}")
+    })
+    @GetMapping(
+        value = "/product-composite/{productId}",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    Flux<ProductAggregatePart> getProductStream(@PathVariable("productId") int productId);
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/product-composite?ids=1,2,3".
+     *
+     * @param productIds ids of the products
+     * @return the composite product info of the products found
+     */
+    @Operation(
+        summary = "${api.product-composite.get-composite-products.description}",
+        description = "${api.product-composite.get-composite-products.notes}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "${api.responseCodes.ok.description}"),
+        @ApiResponse(responseCode = "400", description = "${api.responseCodes.badRequest.description}"),
+        @ApiResponse(responseCode = "422", description = "${api.responseCodes.unprocessableEntity.description}")
+    })
+    @GetMapping("/product-composite")
+    Flux<ProductAggregateResponse> getProducts(@RequestParam("ids") List<Integer> productIds);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/product-composite/1".
      *
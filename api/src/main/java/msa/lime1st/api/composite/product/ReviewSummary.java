@@ -1,5 +1,8 @@
 package msa.lime1st.api.composite.product;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ReviewSummary(
     int reviewId,
     String author,
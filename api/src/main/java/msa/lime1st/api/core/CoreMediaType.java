@@ -0,0 +1,18 @@
+package msa.lime1st.api.core;
+
+/**
+ * core 서비스가 제공하는 응답 형식.
+ * <p>
+ * 외부 클라이언트와 기본값은 JSON 이다. composite 는 Accept 헤더로 Smile(바이너리 JSON)을 요청해
+ * 응답 크기와 파싱 비용을 줄인다. Smile 을 지원하지 않는 인스턴스는 JSON 으로 응답한다.
+ * <p>
+ * 목록 API 는 stream+x-jackson-smile 도 제공한다. 목록을 배열로 모으지 않고 항목을 읽는 대로 하나씩 보낸다.
+ */
+public final class CoreMediaType {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+    private CoreMediaType() {
+    }
+}
@@ -1,11 +1,15 @@
 package msa.lime1st.api.core.product;
 
+import java.util.List;
+import msa.lime1st.api.core.CoreMediaType;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ProductApi {
@@ -29,13 +33,29 @@ public interface ProductApi {
      * @param productId id of the product
      * @return the product, if found, else null
      */
-    @GetMapping("/product/{productId}")
+    @GetMapping(
+        value = "/product/{productId}",
+        produces = {MediaType.APPLICATION_JSON_VALUE, CoreMediaType.APPLICATION_SMILE_VALUE})
     Mono<ProductResponse> getProduct(
         @PathVariable("productId") int productId,
         @RequestParam(value = "delay", required = false, defaultValue = "0") int delay,
         @RequestParam(value = "faultPercent", required = false, defaultValue = "0") int faultPercent
     );
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/product?productIds=1,2,3".
+     *
+     * @param productIds ids of the products
+     * @return the products found, products that do not exist are left out
+     */
+    @GetMapping(
+        value = "/product",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<ProductResponse> getProducts(@RequestParam("productIds") List<Integer> productIds);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/product/1".
      *
@@ -1,31 +1,53 @@
 package msa.lime1st.api.core.product;
 
+/**
+ * version 은 저장소의 @Version 값이다. 응답의 ETag 를 만드는 데 사용한다.
+ */
 public record ProductResponse(
     int productId,
     String name,
     int weight,
+    int version,
     String serviceAddress
 ) {
 
-    public static ProductResponse of (
+    public static ProductResponse of(
         int productId,
         String name,
         int weight,
         String serviceAddress
+    ) {
+        return of(
+            productId,
+            name,
+            weight,
+            0,
+            serviceAddress
+        );
+    }
+
+    public static ProductResponse of(
+        int productId,
+        String name,
+        int weight,
+        int version,
+        String serviceAddress
     ) {
         return new ProductResponse(
             productId,
             name,
             weight,
+            version,
             serviceAddress
         );
     }
 
-    public ProductResponse withServiceAddress (String serviceAddress) {
+    public ProductResponse withServiceAddress(String serviceAddress) {
         return new ProductResponse(
             this.productId,
             this.name,
             this.weight,
+            this.version,
             serviceAddress
         );
     }
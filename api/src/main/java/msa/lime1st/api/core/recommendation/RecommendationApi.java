@@ -1,5 +1,8 @@
 package msa.lime1st.api.core.recommendation;
 
+import java.util.List;
+import msa.lime1st.api.core.CoreMediaType;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -23,15 +26,70 @@ public interface RecommendationApi {
     @PostMapping("/recommendation")
     Mono<RecommendationResponse> postRecommendation(@RequestBody RecommendationRequest request);
 
+    /**
+     * Sample usage, see below.
+     * <p>
+     * curl -X POST $HOST:$PORT/recommendation/batch \
+     *   -H "Content-Type: application/json" --data \
+     *   '[{"productId":123,"recommendationId":456,"author":"me","rate":5,"content":"yada, yada, yada"}]'
+     *
+     * @param requests A JSON representation of the new recommendations
+     * @return A JSON representation of the newly created recommendations
+     */
+    @PostMapping("/recommendation/batch")
+    Flux<RecommendationResponse> postRecommendations(@RequestBody List<RecommendationRequest> requests);
+
     /**
      * Sample usage: "curl $HOST:$PORT/recommendation?productId=1".
      *
      * @param productId id of the product
      * @return the recommendations of the product
      */
-    @GetMapping("/recommendation")
+    @GetMapping(
+        value = "/recommendation",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
     Flux<RecommendationResponse> getRecommendations(@RequestParam("productId") int productId);
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/recommendation?productId=1&fields=author,content".
+     * <p>
+     * 요청한 필드만 조회한다. productId 와 recommendationId 는 항상 포함되고, 나머지 필드는 null 로 반환된다.
+     * 사용할 수 있는 필드: recommendationId, author, rate, content
+     *
+     * @param productId id of the product
+     * @param fields    fields to read from the database
+     * @return the recommendations of the product
+     */
+    @GetMapping(
+        value = "/recommendation",
+        params = {"productId", "fields"},
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<RecommendationResponse> getRecommendations(
+        @RequestParam("productId") int productId,
+        @RequestParam("fields") List<String> fields
+    );
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/recommendation?productIds=1,2,3".
+     *
+     * @param productIds ids of the products
+     * @return the recommendations of all the products
+     */
+    @GetMapping(
+        value = "/recommendation",
+        params = "productIds",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<RecommendationResponse> getRecommendationsByProductIds(@RequestParam("productIds") List<Integer> productIds);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/recommendation?productId=1".
      *
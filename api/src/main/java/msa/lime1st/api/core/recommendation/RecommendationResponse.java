@@ -1,21 +1,45 @@
 package msa.lime1st.api.core.recommendation;
 
-public record RecommendationResponse (
+/**
+ * version 은 저장소의 @Version 값이다. 응답의 ETag 를 만드는 데 사용한다.
+ */
+public record RecommendationResponse(
     int productId,
     int recommendationId,
     String author,
     int rate,
     String content,
+    int version,
     String serviceAddress
 ) {
 
-    public static RecommendationResponse of (
+    public static RecommendationResponse of(
         int productId,
         int recommendationId,
         String author,
         int rate,
         String content,
         String serviceAddress
+    ) {
+        return of(
+            productId,
+            recommendationId,
+            author,
+            rate,
+            content,
+            0,
+            serviceAddress
+        );
+    }
+
+    public static RecommendationResponse of(
+        int productId,
+        int recommendationId,
+        String author,
+        int rate,
+        String content,
+        int version,
+        String serviceAddress
     ) {
         return new RecommendationResponse(
             productId,
@@ -23,17 +47,19 @@ public record RecommendationResponse (
             author,
             rate,
             content,
+            version,
             serviceAddress
         );
     }
 
-    public RecommendationResponse withServiceAddress (String serviceAddress) {
+    public RecommendationResponse withServiceAddress(String serviceAddress) {
         return new RecommendationResponse(
             this.productId,
             this.recommendationId,
             this.author,
             this.rate,
             this.content,
+            this.version,
             serviceAddress
         );
     }
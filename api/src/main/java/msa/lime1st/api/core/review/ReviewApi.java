@@ -1,5 +1,8 @@
 package msa.lime1st.api.core.review;
 
+import java.util.List;
+import msa.lime1st.api.core.CoreMediaType;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -23,15 +26,94 @@ public interface ReviewApi {
     @PostMapping("/review")
     Mono<ReviewResponse> postReview(@RequestBody ReviewRequest request);
 
+    /**
+     * Sample usage, see below.
+     * <p>
+     * curl -X POST $HOST:$PORT/review/batch \
+     *   -H "Content-Type: application/json" --data \
+     *   '[{"productId":123,"reviewId":456,"author":"me","subject":"yada, yada, yada","content":"yada, yada, yada"}]'
+     *
+     * @param requests A JSON representation of the new reviews
+     * @return A JSON representation of the newly created reviews
+     */
+    @PostMapping("/review/batch")
+    Flux<ReviewResponse> postReviews(@RequestBody List<ReviewRequest> requests);
+
     /**
      * Sample usage: "curl $HOST:$PORT/review?productId=1".
      *
      * @param productId id of the product
      * @return the reviews of the product
      */
-    @GetMapping("/review")
+    @GetMapping(
+        value = "/review",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
     Flux<ReviewResponse> getReviews(@RequestParam("productId") int productId);
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/review?productId=1&after=100&limit=50".
+     * <p>
+     * keyset pagination. reviewId 순서로 after 다음의 review 를 최대 limit 개 반환한다.
+     * 다음 페이지는 마지막 review 의 reviewId 를 after 로 지정해 요청하고, limit 보다 적게 반환되면 마지막 페이지다.
+     *
+     * @param productId id of the product
+     * @param after     reviewId of the last review of the previous page. The first page if not given
+     * @param limit     max number of reviews, 1 to 1000
+     * @return a page of the reviews of the product
+     */
+    @GetMapping(
+        value = "/review",
+        params = {"productId", "limit", "!fields"},
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<ReviewResponse> getReviews(
+        @RequestParam("productId") int productId,
+        @RequestParam(value = "after", required = false) Integer after,
+        @RequestParam("limit") int limit
+    );
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/review?productId=1&fields=author,content".
+     * <p>
+     * 요청한 필드만 조회한다. productId 와 reviewId 는 항상 포함되고, 나머지 필드는 null 로 반환된다.
+     * 사용할 수 있는 필드: reviewId, author, subject, content
+     *
+     * @param productId id of the product
+     * @param fields    fields to read from the database
+     * @return the reviews of the product
+     */
+    @GetMapping(
+        value = "/review",
+        params = {"productId", "fields"},
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<ReviewResponse> getReviews(
+        @RequestParam("productId") int productId,
+        @RequestParam("fields") List<String> fields
+    );
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/review?productIds=1,2,3".
+     *
+     * @param productIds ids of the products
+     * @return the reviews of all the products
+     */
+    @GetMapping(
+        value = "/review",
+        params = "productIds",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            CoreMediaType.APPLICATION_SMILE_VALUE,
+            CoreMediaType.APPLICATION_STREAM_SMILE_VALUE})
+    Flux<ReviewResponse> getReviewsByProductIds(@RequestParam("productIds") List<Integer> productIds);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/review?productId=1".
      *
@@ -1,11 +1,15 @@
 package msa.lime1st.api.core.review;
 
+/**
+ * version 은 저장소의 @Version 값이다. 응답의 ETag 를 만드는 데 사용한다.
+ */
 public record ReviewResponse(
     int productId,
     int reviewId,
     String author,
     String subject,
     String content,
+    int version,
     String serviceAddress
 ) {
 
@@ -16,6 +20,26 @@ public record ReviewResponse(
         String subject,
         String content,
         String serviceAddress
+    ) {
+        return of(
+            productId,
+            reviewId,
+            author,
+            subject,
+            content,
+            0,
+            serviceAddress
+        );
+    }
+
+    public static ReviewResponse of(
+        int productId,
+        int reviewId,
+        String author,
+        String subject,
+        String content,
+        int version,
+        String serviceAddress
     ) {
         return new ReviewResponse(
             productId,
@@ -23,6 +47,7 @@ public record ReviewResponse(
             author,
             subject,
             content,
+            version,
             serviceAddress
         );
     }
@@ -34,6 +59,7 @@ public record ReviewResponse(
             this.author,
             this.subject,
             this.content,
+            this.version,
             serviceAddress
         );
     }
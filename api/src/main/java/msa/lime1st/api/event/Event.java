@@ -1,17 +1,20 @@
 package msa.lime1st.api.event;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 public record Event<K, T> (
     Type eventType,
     K key,
     T data,
+    List<T> bulkData,
     ZonedDateTime eventCreatedAt
 ) {
 
     public enum  Type {
         CREATE,
         DELETE,
+        BULK_CREATE,
     }
 
     public static <K, T> Event<K, T> create(
@@ -23,6 +26,23 @@ public record Event<K, T> (
             eventType,
             key,
             data,
+            null,
+            ZonedDateTime.now()
+        );
+    }
+
+    /**
+     * 하나의 aggregate(productId)에 속한 여러 건을 메시지 하나로 보낼 때 사용한다.
+     */
+    public static <K, T> Event<K, T> createBulk(
+        K key,
+        List<T> bulkData
+    ) {
+        return new Event<>(
+            Type.BULK_CREATE,
+            key,
+            null,
+            bulkData,
             ZonedDateTime.now()
         );
     }
@@ -0,0 +1,70 @@
+package msa.lime1st.cloud.gateway.config;
+
+import java.time.Duration;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import msa.lime1st.util.http.StreamingRequests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * gateway 로 들어온 요청에 deadline 을 정해 X-Request-Timeout-Ms 헤더로 하위 서비스에 전달한다.
+ * <p>
+ * 클라이언트가 헤더를 보내지 않으면 timeoutMillis 를 사용하고, 더 긴 값을 보내면 timeoutMillis 로 줄인다.
+ * composite 와 core 서비스는 이 값을 기준으로 남은 시간을 계산해 시간이 지난 요청의 처리를 중단한다.
+ * gateway 도 deadline 이 지나면 응답을 기다리지 않고 504 로 응답한다.
+ * 항목을 하나씩 보내는 streaming 응답은 응답 전체에 시간 제한을 둘 수 없으므로 deadline 을 정하지 않는다.
+ */
+@Component
+public class DeadlineGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadlineGlobalFilter.class);
+
+    private final long timeoutMillis;
+
+    public DeadlineGlobalFilter(
+        @Value("${app.deadline.timeoutMillis:5000}") long timeoutMillis
+    ) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (StreamingRequests.isStreaming(exchange.getRequest().getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        Deadline max = Deadline.after(Duration.ofMillis(timeoutMillis));
+        Deadline deadline = Deadline.fromHeader(exchange.getRequest().getHeaders().getFirst(Deadline.HEADER))
+            .filter(requested -> requested.expiresAtNanos() - max.expiresAtNanos() < 0)
+            .orElse(max);
+
+        if (deadline.isExpired()) {
+            return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+        }
+
+        ServerWebExchange mutated = exchange.mutate()
+            .request(request -> request.headers(headers -> headers.set(Deadline.HEADER, deadline.toHeaderValue())))
+            .build();
+        String path = exchange.getRequest().getPath().value();
+
+        // 하위 서비스 호출에서 발생한 다른 TimeoutException 을 deadline 초과로 바꾸지 않도록 timeout 의 fallback 으로 실패시킨다.
+        return chain.filter(mutated)
+            .timeout(deadline.remaining(), Mono.defer(() -> {
+                LOG.debug("Cancelled {} because its deadline has passed", path);
+                return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+            }));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
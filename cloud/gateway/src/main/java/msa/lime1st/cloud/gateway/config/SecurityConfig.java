@@ -2,8 +2,10 @@ package msa.lime1st.cloud.gateway.config;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
+import msa.lime1st.util.security.JwtDecoderConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity.CsrfSpec;
@@ -11,6 +13,7 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @Configuration
 @EnableWebFluxSecurity
+@Import(JwtDecoderConfig.class)
 public class SecurityConfig {
 
     @Bean
@@ -1,11 +1,17 @@
 package msa.lime1st.cloud.gateway.config;
 
+import msa.lime1st.util.loadbalancer.LoadBalancerConfig;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.function.client.WebClient;
 
+/**
+ * lb:// route 와 health check 호출의 인스턴스 선택에는 composite 와 함께 쓰는 latency aware load balancer(LoadBalancerConfig)를 사용한다.
+ */
 @Configuration
+@Import(LoadBalancerConfig.class)
 public class WebConfig {
 
     @Bean
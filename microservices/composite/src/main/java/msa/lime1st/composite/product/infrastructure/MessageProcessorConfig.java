@@ -0,0 +1,72 @@
+package msa.lime1st.composite.product.infrastructure;
+
+import java.util.function.Consumer;
+import msa.lime1st.api.core.product.ProductRequest;
+import msa.lime1st.api.core.recommendation.RecommendationRequest;
+import msa.lime1st.api.core.review.ReviewRequest;
+import msa.lime1st.api.event.Event;
+import msa.lime1st.composite.product.infrastructure.cache.ProductAggregateCache;
+import msa.lime1st.composite.product.infrastructure.persistence.ProductFallbackStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * composite 가 발행한 이벤트를 다시 구독해 로컬 상태(fallback store, near cache)를 갱신한다.
+ * 모든 composite 인스턴스가 같은 이벤트를 받아야 하므로 consumer group 을 지정하지 않는다.
+ */
+@Configuration
+public class MessageProcessorConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MessageProcessorConfig.class);
+
+    private final ProductFallbackStore fallbackStore;
+    private final ProductAggregateCache aggregateCache;
+
+    public MessageProcessorConfig(ProductFallbackStore fallbackStore, ProductAggregateCache aggregateCache) {
+        this.fallbackStore = fallbackStore;
+        this.aggregateCache = aggregateCache;
+    }
+
+    @Bean
+    public Consumer<Event<Integer, ProductRequest>> productEventProcessor() {
+
+        return event -> {
+            LOG.debug("Process product event {} created at {}", event.eventType(), event.eventCreatedAt());
+
+            switch (event.eventType()) {
+
+                case CREATE:
+                    ProductRequest request = event.data();
+                    fallbackStore.put(request.productId(), request.name(), request.weight());
+                    break;
+
+                case DELETE:
+                    fallbackStore.remove(event.key());
+                    break;
+
+                default:
+                    LOG.warn("Ignoring unexpected product event type: {}", event.eventType());
+            }
+
+            aggregateCache.invalidate(event.key(), event.eventCreatedAt());
+        };
+    }
+
+    @Bean
+    public Consumer<Event<Integer, RecommendationRequest>> recommendationEventProcessor() {
+        return event -> {
+            LOG.debug("Process recommendation event {} created at {}", event.eventType(), event.eventCreatedAt());
+            aggregateCache.invalidate(event.key(), event.eventCreatedAt());
+        };
+    }
+
+    @Bean
+    public Consumer<Event<Integer, ReviewRequest>> reviewEventProcessor() {
+        return event -> {
+            LOG.debug("Process review event {} created at {}", event.eventType(), event.eventCreatedAt());
+            aggregateCache.invalidate(event.key(), event.eventCreatedAt());
+        };
+    }
+}
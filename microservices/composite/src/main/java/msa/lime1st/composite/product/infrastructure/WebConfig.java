@@ -1,22 +1,137 @@
 package msa.lime1st.composite.product.infrastructure;
 
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import msa.lime1st.api.core.CoreMediaType;
+import msa.lime1st.util.loadbalancer.LoadBalancerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * composite -> core 서비스 호출에 사용하는 HTTP 클라이언트 설정.
+ * ConnectionProvider 는 원격 주소(host:port)마다 별도의 pool 을 만들며, maxConnections 는 pool 하나의 크기다.
+ * pool 메트릭(reactor.netty.connection.provider.*)으로 active, idle, pending 연결 수를 확인할 수 있다.
+ * <p>
+ * wireFormat 이 smile 이면 core 서비스에 Smile(바이너리 JSON) 응답을 먼저 요청하고, JSON 을 대안으로 함께 보낸다.
+ * 응답의 Content-Type 에 맞는 코덱으로 읽으므로 Smile 을 지원하지 않는 인스턴스와도 통신할 수 있다.
+ * <p>
+ * transport 가 streaming 이면 HTTP/2(h2c, prior knowledge) 연결 하나에서 요청을 multiplexing 하고,
+ * 목록 API 는 application/stream+x-jackson-smile 로 요청해 core 서비스가 항목을 읽는 대로 하나씩 보내도록 한다.
+ * 목록 전체를 배열로 모아 직렬화하지 않으므로 첫 항목이 빨리 도착하고 maxInMemorySize 의 영향을 받지 않는다.
+ * <p>
+ * 인스턴스 선택에는 gateway 와 함께 쓰는 latency aware load balancer(LoadBalancerConfig)를 사용한다.
+ */
 @Configuration
+@Import(LoadBalancerConfig.class)
 public class WebConfig {
 
-    @Bean
-    RestTemplate restTemplate() {
-        return new RestTemplate();
+    private static final Logger LOG = LoggerFactory.getLogger(WebConfig.class);
+
+    private static final MediaType SMILE = MediaType.parseMediaType(CoreMediaType.APPLICATION_SMILE_VALUE);
+    private static final MediaType STREAM_SMILE = MediaType.parseMediaType(CoreMediaType.APPLICATION_STREAM_SMILE_VALUE);
+
+    private final int maxConnections;
+    private final int pendingAcquireMaxCount;
+    private final long pendingAcquireTimeoutMillis;
+    private final long maxIdleTimeMillis;
+    private final long maxLifeTimeMillis;
+    private final long evictionIntervalMillis;
+    private final int connectTimeoutMillis;
+    private final long responseTimeoutMillis;
+    private final boolean h2c;
+    private final boolean streaming;
+    private final int maxInMemorySize;
+    private final MediaType[] acceptTypes;
+
+    public WebConfig(
+        @Value("${app.http-client.maxConnections:100}") int maxConnections,
+        @Value("${app.http-client.pendingAcquireMaxCount:500}") int pendingAcquireMaxCount,
+        @Value("${app.http-client.pendingAcquireTimeoutMillis:1000}") long pendingAcquireTimeoutMillis,
+        @Value("${app.http-client.maxIdleTimeMillis:30000}") long maxIdleTimeMillis,
+        @Value("${app.http-client.maxLifeTimeMillis:300000}") long maxLifeTimeMillis,
+        @Value("${app.http-client.evictionIntervalMillis:10000}") long evictionIntervalMillis,
+        @Value("${app.http-client.connectTimeoutMillis:1000}") int connectTimeoutMillis,
+        @Value("${app.http-client.responseTimeoutMillis:5000}") long responseTimeoutMillis,
+        @Value("${app.http-client.h2c:false}") boolean h2c,
+        @Value("${app.http-client.maxInMemorySize:1048576}") int maxInMemorySize,
+        @Value("${app.http-client.wireFormat:smile}") String wireFormat,
+        @Value("${app.http-client.transport:rest}") String transport
+    ) {
+        this.maxConnections = maxConnections;
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        this.pendingAcquireTimeoutMillis = pendingAcquireTimeoutMillis;
+        this.maxIdleTimeMillis = maxIdleTimeMillis;
+        this.maxLifeTimeMillis = maxLifeTimeMillis;
+        this.evictionIntervalMillis = evictionIntervalMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.h2c = h2c;
+        this.maxInMemorySize = maxInMemorySize;
+        this.streaming = switch (transport) {
+            case "rest" -> false;
+            case "streaming" -> true;
+            default -> throw new IllegalArgumentException("Unsupported transport: " + transport);
+        };
+        this.acceptTypes = switch (wireFormat) {
+            case "smile" -> streaming
+                ? new MediaType[]{STREAM_SMILE, SMILE, MediaType.APPLICATION_JSON}
+                : new MediaType[]{SMILE, MediaType.APPLICATION_JSON};
+            case "json" -> {
+                if (streaming) {
+                    throw new IllegalArgumentException("The streaming transport requires the smile wire format");
+                }
+                yield new MediaType[]{MediaType.APPLICATION_JSON};
+            }
+            default -> throw new IllegalArgumentException("Unsupported wire format: " + wireFormat);
+        };
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider coreServiceConnectionProvider() {
+        LOG.info("Creates a connection pool for core services with maxConnections = {} per host, h2c = {}, streaming = {}, accept = {}",
+            maxConnections, h2c, streaming, Arrays.toString(acceptTypes));
+        return ConnectionProvider.builder("core-services")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+            .maxIdleTime(Duration.ofMillis(maxIdleTimeMillis))
+            .maxLifeTime(Duration.ofMillis(maxLifeTimeMillis))
+            .evictInBackground(Duration.ofMillis(evictionIntervalMillis))
+            .metrics(true)
+            .build();
     }
 
     @Bean
     @LoadBalanced
-    public WebClient.Builder loadBalancedWebClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder loadBalancedWebClientBuilder(ConnectionProvider coreServiceConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(coreServiceConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMillis));
+
+        if (streaming) {
+            // upgrade 요청 없이 처음부터 HTTP/2 로 통신한다. core 서비스에 server.http2.enabled 가 설정되어 있어야 한다.
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        } else if (h2c) {
+            // core 서비스에 server.http2.enabled 가 설정되어 있어야 한다. 그렇지 않으면 HTTP/1.1 로 통신한다.
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .defaultHeaders(headers -> headers.setAccept(List.of(acceptTypes)))
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize));
     }
-}
\ No newline at end of file
+}
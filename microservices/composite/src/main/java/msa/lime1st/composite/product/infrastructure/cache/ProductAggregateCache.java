@@ -0,0 +1,301 @@
+package msa.lime1st.composite.product.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.LongAdder;
+import msa.lime1st.api.composite.product.ProductAggregateResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 조립이 끝난 ProductAggregateResponse 를 productId 로 캐시하는 near cache.
+ * <p>
+ * key 를 boxing 하지 않도록 int 배열 기반의 open addressing 테이블을 사용하고, lock 경합을 줄이기 위해 segment 로 나눈다.
+ * 크기가 maxSize 를 넘으면 CLOCK 방식으로 교체한다. 조회될 때마다 frequency 를 올리고 hand 가 지날 때마다 내리므로
+ * 자주 조회되는 항목은 한 번만 조회된 항목보다 오래 남는다.
+ * 항목은 TTL 이 지나거나 products, recommendations, reviews 이벤트를 받으면 제거된다.
+ * <p>
+ * 조회가 진행되는 사이에 이벤트가 도착하면 이전 데이터가 캐시될 수 있으므로,
+ * 조회 전에 stamp() 를 받아 두고 put() 에 넘기면 그 사이에 무효화가 있었을 때는 저장하지 않는다.
+ * 이벤트는 core 서비스가 적용하는 것과 동시에 도착하므로 무효화 직후의 조회는 아직 적용되지 않은 데이터를 다시 캐시할 수 있다.
+ * 그 데이터가 TTL 동안 남지 않도록 reinvalidateDelay 가 지나면 한 번 더 무효화한다.
+ * <p>
+ * 응답과 함께 ETag 를 저장하므로 캐시에서 꺼낸 응답으로도 조건부 요청에 304 로 응답할 수 있다.
+ */
+@Component
+public class ProductAggregateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductAggregateCache.class);
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final byte MAX_FREQUENCY = 3;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Duration reinvalidateDelay;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+    private final Timer invalidationLag;
+
+    public ProductAggregateCache(
+        @Value("${app.near-cache.enabled:true}") boolean enabled,
+        @Value("${app.near-cache.maxSize:10000}") int maxSize,
+        @Value("${app.near-cache.ttlSeconds:60}") long ttlSeconds,
+        @Value("${app.near-cache.reinvalidateDelayMillis:2000}") long reinvalidateDelayMillis,
+        MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.reinvalidateDelay = Duration.ofMillis(reinvalidateDelayMillis);
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+
+        FunctionCounter.builder("composite.cache.gets", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("composite.cache.gets", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("composite.cache.hit.ratio", this, ProductAggregateCache::hitRatio)
+            .register(registry);
+        Gauge.builder("composite.cache.size", this, ProductAggregateCache::size)
+            .register(registry);
+        this.sizeEvictions = evictionCounter(registry, "size");
+        this.expiredEvictions = evictionCounter(registry, "expired");
+        this.invalidations = evictionCounter(registry, "invalidated");
+        this.invalidationLag = Timer.builder("composite.cache.invalidation.lag")
+            .description("Time from the event being created until the cache entry was invalidated")
+            .publishPercentileHistogram()
+            .register(registry);
+
+        LOG.info("Product aggregate cache enabled = {}, maxSize = {}, ttl = {}s", enabled, maxSize, ttlSeconds);
+    }
+
+    public Entry get(int productId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = segmentFor(productId).get(productId, System.nanoTime());
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * 조회를 시작하기 전에 호출한다. 반환값은 put() 에 그대로 넘긴다.
+     */
+    public long stamp(int productId) {
+        return segmentFor(productId).generation();
+    }
+
+    public void put(int productId, ProductAggregateResponse response, String etag, long stamp) {
+        if (enabled) {
+            segmentFor(productId).put(productId, new Entry(response, etag), stamp, System.nanoTime() + ttlNanos);
+        }
+    }
+
+    /**
+     * productId 에 대한 이벤트를 받았을 때 호출한다. eventCreatedAt 은 invalidation lag 을 기록하는 데 사용한다.
+     */
+    public void invalidate(int productId, ZonedDateTime eventCreatedAt) {
+        remove(productId);
+        if (eventCreatedAt != null) {
+            invalidationLag.record(Duration.between(eventCreatedAt, ZonedDateTime.now()));
+        }
+        if (enabled && !reinvalidateDelay.isZero()) {
+            Mono.delay(reinvalidateDelay).subscribe(tick -> remove(productId));
+        }
+    }
+
+    private void remove(int productId) {
+        if (segmentFor(productId).remove(productId)) {
+            invalidations.increment();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Segment segmentFor(int productId) {
+        // segment 안의 테이블은 하위 bit 를 사용하므로 segment 는 상위 bit 로 고른다.
+        return segments[spread(productId) >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private static int spread(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Counter evictionCounter(MeterRegistry registry, String cause) {
+        return Counter.builder("composite.cache.evictions")
+            .tag("cause", cause)
+            .register(registry);
+    }
+
+    public record Entry(ProductAggregateResponse response, String etag) {
+    }
+
+    /**
+     * linear probing 테이블. 테이블 크기는 maxEntries 의 2 배 이상으로 잡아 load factor 를 0.5 이하로 유지한다.
+     */
+    private final class Segment {
+
+        private final int maxEntries;
+        private final int mask;
+        private final int[] keys;
+        private final Entry[] values;
+        private final long[] expiresAt;
+        private final byte[] frequencies;
+        private int size;
+        private int hand;
+        private long generation;
+
+        Segment(int maxEntries) {
+            int tableSize = Integer.highestOneBit(Math.max(2, maxEntries * 2 - 1)) << 1;
+            this.maxEntries = maxEntries;
+            this.mask = tableSize - 1;
+            this.keys = new int[tableSize];
+            this.values = new Entry[tableSize];
+            this.expiresAt = new long[tableSize];
+            this.frequencies = new byte[tableSize];
+        }
+
+        synchronized Entry get(int key, long now) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            if (now - expiresAt[slot] >= 0) {
+                removeAt(slot);
+                expiredEvictions.increment();
+                return null;
+            }
+            if (frequencies[slot] < MAX_FREQUENCY) {
+                frequencies[slot]++;
+            }
+            return values[slot];
+        }
+
+        synchronized void put(int key, Entry value, long stamp, long expiry) {
+            if (stamp != generation) {
+                // 조회 중에 이 segment 의 항목이 무효화되었다. 오래된 데이터일 수 있으므로 저장하지 않는다.
+                return;
+            }
+
+            int slot = find(key);
+            if (slot < 0) {
+                if (size >= maxEntries) {
+                    evict();
+                }
+                slot = spread(key) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                frequencies[slot] = 0;
+                size++;
+            }
+            values[slot] = value;
+            expiresAt[slot] = expiry;
+        }
+
+        synchronized boolean remove(int key) {
+            generation++;
+            int slot = find(key);
+            if (slot < 0) {
+                return false;
+            }
+            removeAt(slot);
+            return true;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(int key) {
+            int slot = spread(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * CLOCK: frequency 가 0 인 항목을 만날 때까지 hand 를 돌리며 frequency 를 하나씩 줄인다.
+         */
+        private void evict() {
+            while (true) {
+                hand = (hand + 1) & mask;
+                if (values[hand] == null) {
+                    continue;
+                }
+                if (frequencies[hand] > 0) {
+                    frequencies[hand]--;
+                    continue;
+                }
+                removeAt(hand);
+                sizeEvictions.increment();
+                return;
+            }
+        }
+
+        /**
+         * tombstone 을 남기지 않도록 뒤따르는 항목을 앞으로 당긴다 (backward shift deletion).
+         */
+        private void removeAt(int slot) {
+            int gap = slot;
+            int next = (slot + 1) & mask;
+            while (values[next] != null) {
+                int ideal = spread(keys[next]) & mask;
+                if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    expiresAt[gap] = expiresAt[next];
+                    frequencies[gap] = frequencies[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[gap] = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * downstream 서비스별 동시 호출 수를 관측된 RTT 에 따라 조절한다 (AIMD).
+ * <p>
+ * RTT 가 최소 RTT 의 rttTolerance 배 이내로 성공하면 limit 을 조금씩(1/limit) 늘리고,
+ * 그보다 느리거나 timeout, 5xx, 연결 오류가 발생하면 backoffRatio 만큼 줄인다.
+ * limit 에 도달하면 큐에 쌓지 않고 바로 ConcurrencyLimitExceededException(503)으로 거절한다.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // 최소 RTT 는 이 횟수만큼 측정할 때마다 다시 잡는다. 배포나 스케일 아웃으로 기준이 바뀔 수 있기 때문이다.
+    private static final int MIN_RTT_RESET_INTERVAL = 1000;
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final MeterRegistry registry;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter(
+        @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+        @Value("${app.concurrency-limit.initialLimit:20}") int initialLimit,
+        @Value("${app.concurrency-limit.minLimit:5}") int minLimit,
+        @Value("${app.concurrency-limit.maxLimit:200}") int maxLimit,
+        @Value("${app.concurrency-limit.rttTolerance:2.0}") double rttTolerance,
+        @Value("${app.concurrency-limit.backoffRatio:0.9}") double backoffRatio,
+        MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.registry = registry;
+    }
+
+    public <T> Mono<T> limit(String name, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Limit limit = limits.computeIfAbsent(name, Limit::new);
+            if (!limit.tryAcquire()) {
+                return Mono.error(limit.rejected());
+            }
+            Permit permit = new Permit(limit);
+            return call
+                .doOnError(permit::onError)
+                .doFinally(permit::release);
+        });
+    }
+
+    public <T> Flux<T> limit(String name, Flux<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Flux.defer(() -> {
+            Limit limit = limits.computeIfAbsent(name, Limit::new);
+            if (!limit.tryAcquire()) {
+                return Flux.error(limit.rejected());
+            }
+            Permit permit = new Permit(limit);
+            return call
+                .doOnError(permit::onError)
+                .doFinally(permit::release);
+        });
+    }
+
+    public int currentLimit(String name) {
+        Limit limit = limits.get(name);
+        return limit == null ? initialLimit : (int) limit.limit;
+    }
+
+    private static boolean isOverloadSignal(Throwable error) {
+        if (error instanceof TimeoutException || error instanceof WebClientRequestException) {
+            return true;
+        }
+        return error instanceof WebClientResponseException wcre && wcre.getStatusCode().is5xxServerError();
+    }
+
+    private class Permit {
+
+        private final Limit limit;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean dropped;
+
+        Permit(Limit limit) {
+            this.limit = limit;
+        }
+
+        void onError(Throwable error) {
+            dropped = isOverloadSignal(error);
+        }
+
+        void release(SignalType signal) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            limit.release(System.nanoTime() - start, dropped, signal == SignalType.CANCEL);
+        }
+    }
+
+    private class Limit {
+
+        private final String name;
+        private final Counter rejectedCounter;
+        private volatile double limit = initialLimit;
+        private int inFlight;
+        private long minRttNanos = Long.MAX_VALUE;
+        private int samples;
+
+        Limit(String name) {
+            this.name = name;
+            this.rejectedCounter = Counter.builder("composite.concurrency.rejected")
+                .tag("downstream", name)
+                .register(registry);
+            Gauge.builder("composite.concurrency.limit", this, l -> l.limit)
+                .tag("downstream", name)
+                .register(registry);
+            Gauge.builder("composite.concurrency.inflight", this, Limit::inFlight)
+                .tag("downstream", name)
+                .register(registry);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release(long rttNanos, boolean dropped, boolean cancelled) {
+            inFlight--;
+
+            if (dropped) {
+                decrease();
+                return;
+            }
+            if (cancelled) {
+                // TimeLimiter 등으로 취소된 호출은 실제 RTT 를 알 수 없다. 이미 허용 범위를 넘긴 경우에만 줄인다.
+                if (rttNanos > minRttNanos * rttTolerance) {
+                    decrease();
+                }
+                return;
+            }
+
+            if (++samples % MIN_RTT_RESET_INTERVAL == 0) {
+                minRttNanos = Long.MAX_VALUE;
+            }
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+
+            if (rttNanos > minRttNanos * rttTolerance) {
+                decrease();
+            } else if (inFlight * 2 >= limit) {
+                // limit 에 가깝게 사용 중일 때만 늘린다. 한가할 때 limit 이 끝없이 커지는 것을 막는다.
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+
+        synchronized double inFlight() {
+            return inFlight;
+        }
+
+        ConcurrencyLimitExceededException rejected() {
+            String message = "Concurrency limit of " + (int) limit + " reached for the " + name + " service";
+            LOG.warn(message);
+            return new ConcurrencyLimitExceededException(message);
+        }
+
+        private void decrease() {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+}
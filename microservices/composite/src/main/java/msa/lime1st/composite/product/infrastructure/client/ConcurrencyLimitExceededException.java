@@ -0,0 +1,14 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import msa.lime1st.util.exception.ServiceUnavailableException;
+
+/**
+ * AdaptiveConcurrencyLimiter 가 호출을 거절한 경우. downstream 을 호출하지 않았으므로
+ * retry 와 서킷 브레이커에서 제외하고(composite.yml 의 ignoreExceptions) 바로 503 으로 응답한다.
+ */
+public class ConcurrencyLimitExceededException extends ServiceUnavailableException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
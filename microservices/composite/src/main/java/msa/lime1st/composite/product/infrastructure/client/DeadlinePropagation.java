@@ -0,0 +1,49 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * core 서비스 호출에 요청의 남은 시간을 X-Request-Timeout-Ms 헤더로 전달한다.
+ * <p>
+ * 남은 시간은 호출할 때마다 다시 계산하므로 retry 로 다시 호출하면 그만큼 줄어든 값이 전달된다.
+ * 남은 시간이 minRemainingMillis 보다 적으면 응답을 받을 수 없으므로 호출하지 않고 DeadlineExceededException 으로 실패한다.
+ * Deadline 이 없는 요청(메시지 처리, 헤더 없이 composite 를 직접 호출한 경우)은 헤더 없이 호출한다.
+ */
+@Component
+public class DeadlinePropagation {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadlinePropagation.class);
+
+    private final long minRemainingMillis;
+
+    public DeadlinePropagation(
+        @Value("${app.deadline.minRemainingMillis:50}") long minRemainingMillis
+    ) {
+        this.minRemainingMillis = minRemainingMillis;
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.deferContextual(context -> Deadline.from(context)
+            .map(deadline -> {
+                long remaining = deadline.remaining().toMillis();
+                if (remaining < minRemainingMillis) {
+                    LOG.debug("Skips {} {} with only {} ms left", request.method(), request.url(), remaining);
+                    return Mono.<ClientResponse>error(
+                        new DeadlineExceededException("Request deadline exceeded before calling " + request.url().getHost()));
+                }
+                return next.exchange(ClientRequest.from(request)
+                    .headers(headers -> headers.set(Deadline.HEADER, Long.toString(remaining)))
+                    .build());
+            })
+            .orElseGet(() -> next.exchange(request)));
+    }
+}
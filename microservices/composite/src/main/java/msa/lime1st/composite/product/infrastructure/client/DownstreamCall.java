@@ -0,0 +1,26 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mono, Flux 를 반환하는 core 서비스 호출을 재시도, TimeLimiter, 서킷 브레이커 바깥에서 한 번 기록한다.
+ *
+ * @see DownstreamCallAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DownstreamCall {
+
+    /**
+     * composite.downstream.requests 의 operation tag
+     */
+    String value();
+
+    /**
+     * 호출한 쪽에서 오류를 빈 결과로 대체하는 경우 true
+     */
+    boolean partialOnError() default false;
+}
@@ -0,0 +1,38 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * resilience4j aspect(Retry 가 가장 바깥)보다 먼저 실행되어 재시도와 fallback 까지 끝난 결과를 기록한다.
+ * 안쪽의 DownstreamMetrics.record 는 이 기록이 있으면 시도마다 따로 기록하지 않는다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DownstreamCallAspect {
+
+    private final DownstreamMetrics metrics;
+
+    public DownstreamCallAspect(DownstreamMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("@annotation(call)")
+    public Object record(ProceedingJoinPoint joinPoint, DownstreamCall call) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Mono<?> mono) {
+            return metrics.record(call.value(), call.partialOnError(), mono);
+        }
+        if (result instanceof Flux<?> flux) {
+            return metrics.record(call.value(), call.partialOnError(), flux);
+        }
+        return result;
+    }
+}
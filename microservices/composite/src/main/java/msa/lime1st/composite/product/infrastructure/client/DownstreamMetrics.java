@@ -0,0 +1,206 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.exception.ServiceUnavailableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * core 서비스 호출마다 composite.downstream.requests 타이머를 하나 기록한다.
+ * <p>
+ * tag:
+ * operation - getProduct, getRecommendations 등 호출한 API
+ * outcome   - success, fallback, fallback-miss, empty(오류를 빈 결과로 대체), timeout, circuit-open, rejected, error, cancelled
+ * instance  - load balancer 가 고른 인스턴스(host:port). 요청을 보내기 전에 실패하면 none
+ * <p>
+ * 재시도, TimeLimiter, 서킷 브레이커가 붙은 호출은 DownstreamCall 로 바깥에서 한 번만 기록한다.
+ * 그 안의 각 시도(재시도, hedging)는 따로 기록하지 않으므로 호출 하나는 outcome 하나를 남긴다.
+ * TimeLimiter 의 시간 초과, 요청의 deadline 초과, core 서비스의 504 응답은 timeout 으로 기록한다.
+ * cancelled 는 호출한 쪽이 결과를 기다리지 않고 취소한 경우다(latency budget 초과 등).
+ * <p>
+ * RequestCoalescer 로 진행 중인 호출에 합류한 요청(follower)은 요청을 보내지 않으므로 instance 가 없다.
+ * 인스턴스별 지연 시간에 섞이지 않도록 composite.downstream.coalesced 타이머(operation, outcome)에 따로 기록한다.
+ * <p>
+ * 메시지 발행은 binding 별로 composite.downstream.messages 타이머에 기록한다.
+ */
+@Component
+public class DownstreamMetrics {
+
+    private static final String SAMPLE_CONTEXT_KEY = DownstreamMetrics.class.getName() + ".sample";
+    private static final String NO_INSTANCE = "none";
+
+    private final MeterRegistry registry;
+
+    public DownstreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 호출 전체를 기록한다. 바깥에서 이미 기록하고 있으면 각 시도는 따로 기록하지 않는다.
+     *
+     * @param partialOnError 호출한 쪽에서 오류를 빈 결과로 대체하는 경우 true. 일반 오류를 empty 로 기록한다.
+     */
+    public <T> Mono<T> record(String operation, boolean partialOnError, Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            if (context.hasKey(SAMPLE_CONTEXT_KEY)) {
+                return call;
+            }
+            Sample sample = new Sample(operation, partialOnError);
+            return call
+                .doOnSuccess(value -> sample.succeed())
+                .doOnError(sample::fail)
+                .doOnCancel(() -> sample.stop("cancelled"))
+                .contextWrite(ctx -> ctx.put(SAMPLE_CONTEXT_KEY, sample));
+        });
+    }
+
+    public <T> Flux<T> record(String operation, boolean partialOnError, Flux<T> call) {
+        return Flux.deferContextual(context -> {
+            if (context.hasKey(SAMPLE_CONTEXT_KEY)) {
+                return call;
+            }
+            Sample sample = new Sample(operation, partialOnError);
+            return call
+                .doOnComplete(sample::succeed)
+                .doOnError(sample::fail)
+                .doOnCancel(() -> sample.stop("cancelled"))
+                .contextWrite(ctx -> ctx.put(SAMPLE_CONTEXT_KEY, sample));
+        });
+    }
+
+    /**
+     * 진행 중인 호출의 outcome 을 정한다. 서킷 브레이커 fallback 처럼 결과만으로 구분할 수 없는 경우에 사용한다.
+     */
+    public void markOutcome(ContextView context, String outcome) {
+        context.<Sample>getOrEmpty(SAMPLE_CONTEXT_KEY)
+            .ifPresent(sample -> sample.marked.set(outcome));
+    }
+
+    /**
+     * 진행 중인 호출에 합류해 그 결과를 받는 요청으로 표시한다. RequestCoalescer 가 follower 의 context 로 호출한다.
+     */
+    public void markCoalesced(ContextView context) {
+        context.<Sample>getOrEmpty(SAMPLE_CONTEXT_KEY)
+            .ifPresent(sample -> sample.coalesced.set(true));
+    }
+
+    /**
+     * 이벤트를 발행(outbox 에 기록)하는 시간을 binding 별로 기록한다. 한 번에 여러 binding 을 기록하면 각 binding 에 같은 시간을 기록한다.
+     */
+    public void recordSend(List<String> bindingNames, Runnable send) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            send.run();
+            outcome = "success";
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            for (String bindingName : bindingNames) {
+                Timer.builder("composite.downstream.messages")
+                    .tag("binding", bindingName)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * load balancer 가 URL 을 실제 인스턴스 주소로 바꾼 뒤에 실행되도록 @LoadBalanced 필터 다음에 등록해야 한다.
+     */
+    public ExchangeFilterFunction instanceFilter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            context.<Sample>getOrEmpty(SAMPLE_CONTEXT_KEY)
+                .ifPresent(sample -> sample.instance.set(instanceOf(request.url())));
+            return next.exchange(request);
+        });
+    }
+
+    private static String instanceOf(URI url) {
+        return url.getPort() < 0 ? url.getHost() : url.getHost() + ":" + url.getPort();
+    }
+
+    private static String classify(Throwable error, boolean partialOnError) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                || cause instanceof SocketTimeoutException
+                || cause instanceof io.netty.handler.timeout.TimeoutException
+                || cause instanceof io.netty.channel.ConnectTimeoutException
+                || cause instanceof DeadlineExceededException
+                || cause instanceof WebClientResponseException.GatewayTimeout) {
+                return "timeout";
+            }
+            if (cause instanceof CallNotPermittedException) {
+                return "circuit-open";
+            }
+            if (cause instanceof ServiceUnavailableException) {
+                return "rejected";
+            }
+        }
+        return partialOnError ? "empty" : "error";
+    }
+
+    private Timer timer(String operation, String outcome, String instance) {
+        return Timer.builder("composite.downstream.requests")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .tag("instance", instance)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private Timer coalescedTimer(String operation, String outcome) {
+        return Timer.builder("composite.downstream.coalesced")
+            .description("Calls answered by joining an in-flight downstream call")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private class Sample {
+
+        private final String operation;
+        private final boolean partialOnError;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicReference<String> instance = new AtomicReference<>(NO_INSTANCE);
+        private final AtomicReference<String> marked = new AtomicReference<>();
+        private final AtomicBoolean coalesced = new AtomicBoolean();
+
+        Sample(String operation, boolean partialOnError) {
+            this.operation = operation;
+            this.partialOnError = partialOnError;
+        }
+
+        void succeed() {
+            String outcome = marked.get();
+            stop(outcome != null ? outcome : "success");
+        }
+
+        void fail(Throwable error) {
+            String outcome = marked.get();
+            stop(outcome != null ? outcome : classify(error, partialOnError));
+        }
+
+        void stop(String outcome) {
+            if (stopped.compareAndSet(false, true)) {
+                Timer timer = coalesced.get() ? coalescedTimer(operation, outcome) : timer(operation, outcome, instance.get());
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
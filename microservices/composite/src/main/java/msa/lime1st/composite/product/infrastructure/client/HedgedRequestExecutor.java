@@ -0,0 +1,172 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import msa.lime1st.util.loadbalancer.ChosenInstances;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 첫 번째 요청이 최근 응답 시간의 백분위수(delay)를 넘기면 같은 요청을 한 번 더 보내고 먼저 도착한 응답을 사용한다.
+ * <p>
+ * 두 요청은 같은 ChosenInstances 를 Reactor context 로 전달하므로, load balancer 는 다른 인스턴스가 있는 한
+ * 두 번째 요청을 첫 번째 요청과 다른 인스턴스로 보낸다.
+ * 추가 요청은 budgetPercent 만큼의 토큰 버킷으로 제한해 트래픽이 두 배로 늘어나지 않도록 한다.
+ * <p>
+ * delay 는 첫 응답부터 관측한 응답 시간으로 계산한다. 응답을 하나도 받지 못한 동안에만 maxDelay 를 사용한다.
+ * 추가 요청을 보내기 전에 첫 번째 요청이 실패하면 delay 를 기다리지 않고 바로 실패한다.
+ */
+@Component
+public class HedgedRequestExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HedgedRequestExecutor.class);
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECALCULATE_INTERVAL = 64;
+    private static final double MAX_TOKENS = 10.0;
+
+    private static final int PENDING = 0;
+    private static final int HEDGING = 1;
+    private static final int FAILED = 2;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final long maxDelayMillis;
+    private final double budgetRatio;
+    private final MeterRegistry registry;
+    private final Map<String, Downstream> downstreams = new ConcurrentHashMap<>();
+
+    public HedgedRequestExecutor(
+        @Value("${app.hedging.enabled:false}") boolean enabled,
+        @Value("${app.hedging.percentile:0.95}") double percentile,
+        @Value("${app.hedging.minDelayMillis:20}") long minDelayMillis,
+        @Value("${app.hedging.maxDelayMillis:1000}") long maxDelayMillis,
+        @Value("${app.hedging.budgetPercent:10}") double budgetPercent,
+        MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.budgetRatio = budgetPercent / 100.0;
+        this.registry = registry;
+        LOG.info("Hedging enabled = {}, percentile = {}, budget = {}%", enabled, percentile, budgetPercent);
+    }
+
+    public <T> Mono<T> hedge(String name, Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            Downstream downstream = downstreams.computeIfAbsent(name, Downstream::new);
+            downstream.requests.increment();
+            downstream.addTokens(budgetRatio);
+
+            AtomicInteger state = new AtomicInteger(PENDING);
+            Sinks.One<T> primaryFailed = Sinks.one();
+            ChosenInstances chosen = new ChosenInstances();
+
+            Mono<T> primary = downstream.timed(call.get())
+                .contextWrite(context -> ChosenInstances.put(context, chosen))
+                .doOnError(error -> {
+                    // 추가 요청을 보내지 않았으면 기다릴 응답이 없으므로 delay 를 기다리지 않고 바로 실패한다.
+                    if (state.compareAndSet(PENDING, FAILED)) {
+                        primaryFailed.tryEmitError(error);
+                    }
+                });
+            Mono<T> hedged = Mono.delay(downstream.delay())
+                .then(Mono.defer(() -> {
+                    if (!downstream.tryAcquireToken()) {
+                        downstream.budgetExhausted.increment();
+                        return Mono.<T>empty();
+                    }
+                    if (!state.compareAndSet(PENDING, HEDGING)) {
+                        downstream.addTokens(1.0);
+                        return Mono.<T>empty();
+                    }
+                    LOG.debug("Sending a hedged {} request", name);
+                    downstream.hedges.increment();
+                    return downstream.timed(call.get())
+                        .contextWrite(context -> ChosenInstances.put(context, chosen))
+                        .doOnNext(value -> downstream.wins.increment());
+                }));
+
+            return Mono.firstWithSignal(Mono.firstWithValue(primary, hedged), primaryFailed.asMono());
+        });
+    }
+
+    private class Downstream {
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private int sampleCount;
+        private volatile long delayMillis;
+        private double tokens = MAX_TOKENS;
+
+        private final Counter requests;
+        private final Counter hedges;
+        private final Counter wins;
+        private final Counter budgetExhausted;
+
+        Downstream(String name) {
+            this.delayMillis = maxDelayMillis;
+            this.requests = counter(name, "composite.hedging.requests");
+            this.hedges = counter(name, "composite.hedging.hedges");
+            this.wins = counter(name, "composite.hedging.wins");
+            this.budgetExhausted = counter(name, "composite.hedging.budget.exhausted");
+        }
+
+        Duration delay() {
+            return Duration.ofMillis(delayMillis);
+        }
+
+        <T> Mono<T> timed(Mono<T> call) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return call.doOnNext(value -> record(System.nanoTime() - start));
+            });
+        }
+
+        synchronized void addTokens(double amount) {
+            tokens = Math.min(MAX_TOKENS, tokens + amount);
+        }
+
+        synchronized boolean tryAcquireToken() {
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+
+        private synchronized void record(long elapsedNanos) {
+            samples[sampleCount % SAMPLE_SIZE] = elapsedNanos;
+            sampleCount++;
+            // 처음 RECALCULATE_INTERVAL 개는 응답마다 다시 계산해 maxDelay 에서 빨리 벗어나도록 한다.
+            if (sampleCount < RECALCULATE_INTERVAL || sampleCount % RECALCULATE_INTERVAL == 0) {
+                long[] sorted = Arrays.copyOf(samples, Math.min(sampleCount, SAMPLE_SIZE));
+                Arrays.sort(sorted);
+                long percentileMillis = Duration.ofNanos(
+                    sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))]).toMillis();
+                delayMillis = Math.max(minDelayMillis, Math.min(maxDelayMillis, percentileMillis));
+            }
+        }
+
+        private Counter counter(String downstream, String name) {
+            return Counter.builder(name)
+                .tag("downstream", downstream)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package msa.lime1st.composite.product.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
+
+/**
+ * 같은 downstream, 같은 productId 에 대한 동시 요청을 하나의 downstream 호출로 합친다 (single-flight).
+ * 먼저 도착한 요청(leader)이 호출을 만들고, 호출이 끝나기 전에 도착한 요청은 그 결과를 공유한다.
+ * <p>
+ * downstream 호출은 요청의 인증 정보를 전달하지 않고 응답은 호출한 사용자와 관계없으므로 principal 과 관계없이 합친다.
+ * deadline 은 leader 의 것이 아니라 기다리는 요청 중 가장 늦은 deadline 을 사용한다. 호출이 deadline 초과로 실패했는데
+ * 그 사이에 더 늦은 deadline 을 가진 요청이 합류했으면 그 deadline 으로 다시 호출한다.
+ * <p>
+ * 합류한 요청은 DownstreamMetrics 에 coalesced 로 표시해 실제 호출(leader)의 인스턴스별 지연 시간과 섞이지 않게 한다.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final Map<Key, InFlight<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leaderCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> joinedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final DownstreamMetrics metrics;
+
+    public RequestCoalescer(MeterRegistry registry, DownstreamMetrics metrics) {
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    public <T> Mono<T> coalesce(String downstream, int productId, Supplier<Mono<T>> call) {
+        return Mono.deferContextual(context -> join(new Key(downstream, productId), context, call));
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> join(Key key, ContextView context, Supplier<Mono<T>> call) {
+        boolean[] leader = {false};
+        InFlight<T> flight = (InFlight<T>) inFlight.computeIfAbsent(key, k -> {
+            leader[0] = true;
+            return new InFlight<>(k, call);
+        });
+        flight.extend(Deadline.from(context));
+
+        if (leader[0]) {
+            counter(leaderCounters, key.downstream(), "leader").increment();
+        } else {
+            LOG.debug("Joined an in-flight {} call for productId: {}", key.downstream(), key.productId());
+            counter(joinedCounters, key.downstream(), "joined").increment();
+            metrics.markCoalesced(context);
+        }
+        return flight.shared;
+    }
+
+    private Counter counter(Map<String, Counter> counters, String downstream, String result) {
+        return counters.computeIfAbsent(downstream, d -> Counter.builder("composite.coalescing.calls")
+            .description("Downstream calls started (leader) or collapsed into an in-flight call (joined)")
+            .tag("downstream", d)
+            .tag("result", result)
+            .register(registry));
+    }
+
+    private static boolean isDeadlineExceeded(Throwable error) {
+        return error instanceof DeadlineExceededException || error instanceof WebClientResponseException.GatewayTimeout;
+    }
+
+    private record Key(String downstream, int productId) {
+    }
+
+    private final class InFlight<T> {
+
+        private final Mono<T> shared;
+
+        // 합류한 요청 중 가장 늦은 deadline. deadline 이 없는 요청이 하나라도 있으면 unbounded
+        private Deadline latest;
+        private boolean unbounded;
+        private Optional<Deadline> issuedWith = Optional.empty();
+
+        InFlight(Key key, Supplier<Mono<T>> call) {
+            // contextWrite 는 구독할 때마다 다시 계산되므로 다시 호출할 때는 그때까지 합류한 요청의 deadline 을 사용한다.
+            this.shared = Mono.defer(call)
+                .contextWrite(this::withLatestDeadline)
+                .retryWhen(Retry.indefinitely()
+                    .filter(error -> isDeadlineExceeded(error) && hasLaterDeadline())
+                    .doBeforeRetry(signal -> LOG.debug("Reissues the {} call for productId: {} with a later deadline",
+                        key.downstream(), key.productId())))
+                .doFinally(signal -> inFlight.remove(key, this))
+                .share();
+        }
+
+        synchronized void extend(Optional<Deadline> deadline) {
+            if (deadline.isEmpty()) {
+                unbounded = true;
+            } else if (latest == null || deadline.get().expiresAtNanos() - latest.expiresAtNanos() > 0) {
+                latest = deadline.get();
+            }
+        }
+
+        private synchronized Context withLatestDeadline(Context context) {
+            issuedWith = unbounded ? Optional.empty() : Optional.ofNullable(latest);
+            return issuedWith.map(deadline -> Deadline.put(context, deadline))
+                .orElseGet(() -> Deadline.remove(context));
+        }
+
+        /**
+         * 마지막 호출에 사용한 deadline 보다 늦고 아직 지나지 않은 deadline 을 가진 요청이 기다리고 있는지 확인한다.
+         */
+        private synchronized boolean hasLaterDeadline() {
+            if (issuedWith.isEmpty()) {
+                return false;
+            }
+            if (unbounded) {
+                return true;
+            }
+            return latest.expiresAtNanos() - issuedWith.get().expiresAtNanos() > 0 && !latest.isExpired();
+        }
+    }
+}
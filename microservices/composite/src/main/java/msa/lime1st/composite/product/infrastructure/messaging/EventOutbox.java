@@ -0,0 +1,222 @@
+package msa.lime1st.composite.product.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import msa.lime1st.api.event.Event;
+import msa.lime1st.composite.product.infrastructure.persistence.OutboxLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이벤트를 OutboxLog 에 먼저 저장하고, 백그라운드 relay 스레드가 batch 단위로 브로커에 전달한다.
+ * <p>
+ * HTTP 요청은 디스크 기록(fsync)까지만 기다리므로 브로커 장애가 요청을 막지 않는다.
+ * 전달에 실패하면 지수 backoff 로 다시 시도한다. 전달과 offset 기록 사이에 종료되면 같은 이벤트가 다시 전달될 수 있다 (at-least-once).
+ */
+@Component
+public class EventOutbox implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventOutbox.class);
+
+    private final OutboxLog outboxLog;
+    private final StreamBridge streamBridge;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+    private final long relayIntervalMillis;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Timer appendTimer;
+    private final Counter relayedCounter;
+    private final Counter failureCounter;
+
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile ScheduledExecutorService relayExecutor;
+    private long position;
+    private int consecutiveFailures;
+    private long nextAttemptAt;
+
+    public record OutboxEvent(String bindingName, Event<?, ?> event) {
+    }
+
+    public EventOutbox(
+        OutboxLog outboxLog,
+        StreamBridge streamBridge,
+        ObjectMapper mapper,
+        MeterRegistry registry,
+        @Value("${app.outbox.batchSize:100}") int batchSize,
+        @Value("${app.outbox.relayIntervalMillis:100}") long relayIntervalMillis,
+        @Value("${app.outbox.minBackoffMillis:100}") long minBackoffMillis,
+        @Value("${app.outbox.maxBackoffMillis:30000}") long maxBackoffMillis
+    ) {
+        this.outboxLog = outboxLog;
+        this.streamBridge = streamBridge;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.relayIntervalMillis = relayIntervalMillis;
+        this.minBackoffMillis = minBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.position = outboxLog.committedOffset();
+
+        this.appendTimer = Timer.builder("composite.outbox.append")
+            .description("Time to write and fsync a batch of events to the outbox")
+            .register(registry);
+        this.relayedCounter = Counter.builder("composite.outbox.relayed")
+            .register(registry);
+        this.failureCounter = Counter.builder("composite.outbox.relay.failures")
+            .register(registry);
+        Gauge.builder("composite.outbox.pending.bytes", outboxLog, OutboxLog::pendingBytes)
+            .register(registry);
+    }
+
+    /**
+     * 이벤트들을 한 번의 fsync 로 저장한다. 반환되면 이벤트는 재시작 후에도 전달된다.
+     */
+    public void append(List<OutboxEvent> events) {
+        List<byte[]> records = events.stream()
+            .map(this::serialize)
+            .toList();
+
+        appendTimer.record(() -> outboxLog.append(records));
+        LOG.debug("Appended {} events to the outbox", records.size());
+
+        ScheduledExecutorService executor = relayExecutor;
+        if (executor != null && wakeupPending.compareAndSet(false, true)) {
+            executor.execute(this::relayQuietly);
+        }
+    }
+
+    /**
+     * 저장된 이벤트를 가능한 만큼 브로커로 전달한다.
+     *
+     * @return 전달한 이벤트 수
+     */
+    public synchronized int relay() {
+        wakeupPending.set(false);
+        if (System.currentTimeMillis() < nextAttemptAt) {
+            return 0;
+        }
+
+        int relayed = 0;
+        List<OutboxLog.Entry> entries;
+        while (!(entries = outboxLog.read(position, batchSize)).isEmpty()) {
+            long delivered = position;
+            try {
+                for (OutboxLog.Entry entry : entries) {
+                    send(entry.data());
+                    delivered = entry.endOffset();
+                    relayed++;
+                    relayedCounter.increment();
+                }
+            } catch (RuntimeException e) {
+                position = outboxLog.commit(delivered);
+                onFailure(e);
+                return relayed;
+            }
+            position = outboxLog.commit(delivered);
+        }
+
+        consecutiveFailures = 0;
+        return relayed;
+    }
+
+    @Override
+    public void start() {
+        relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relayExecutor.scheduleWithFixedDelay(
+            this::relayQuietly, 0, relayIntervalMillis, TimeUnit.MILLISECONDS);
+        LOG.info("Started the outbox relay, batchSize = {}, interval = {} ms", batchSize, relayIntervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = relayExecutor;
+        relayExecutor = null;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // 종료 전에 남은 이벤트를 한 번 더 전달해 본다. 실패한 이벤트는 재시작 후 전달된다.
+        relayQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return relayExecutor != null;
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            LOG.error("Outbox relay failed", e);
+        }
+    }
+
+    private void send(byte[] record) {
+        JsonNode envelope;
+        try {
+            envelope = mapper.readTree(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read an outbox record", e);
+        }
+
+        String bindingName = envelope.get("bindingName").asText();
+        JsonNode event = envelope.get("event");
+        Object key = mapper.convertValue(event.get("key"), Object.class);
+
+        Message<JsonNode> message = MessageBuilder.withPayload(event)
+            .setHeader("partitionKey", key)
+            .build();
+        if (!streamBridge.send(bindingName, message)) {
+            throw new IllegalStateException("Failed to send a message to " + bindingName);
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        failureCounter.increment();
+        consecutiveFailures++;
+        long backoff = Math.min(maxBackoffMillis,
+            minBackoffMillis << Math.min(consecutiveFailures - 1, 20));
+        nextAttemptAt = System.currentTimeMillis() + backoff;
+        LOG.warn("Failed to relay outbox events ({} times in a row), will retry in {} ms: {}",
+            consecutiveFailures, backoff, e.toString());
+    }
+
+    private byte[] serialize(OutboxEvent event) {
+        try {
+            return mapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize an outbox event", e);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package msa.lime1st.composite.product.infrastructure.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 브로커로 보내기 전의 이벤트를 저장하는 append-only 파일 로그 (transactional outbox).
+ * <p>
+ * append() 는 여러 레코드를 한 번의 write 와 fsync 로 기록하므로 한 aggregate 의 이벤트는 모두 저장되거나 모두 저장되지 않는다.
+ * fsync 는 lock 밖에서 group commit 으로 실행한다. 앞선 fsync 를 기다리는 동안 기록된 레코드는 다음 fsync 한 번으로 함께 디스크에 기록된다.
+ * <p>
+ * 로그는 segmentBytes 크기의 segment 파일(events-{시작 offset}.log)로 나눈다. offset 은 segment 를 이어 붙인 전체 로그의 위치다.
+ * 전달이 끝난 위치는 별도의 offset 파일에 기록하고, 모든 레코드가 전달된 segment 는 삭제하므로 쓰기가 계속되어도 로그가 끝없이 커지지 않는다.
+ * <p>
+ * 레코드 레이아웃: length(4) | crc32(4) | data(length)
+ */
+@Component
+public class OutboxLog implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxLog.class);
+
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LEGACY_LOG_FILE = "events.log";
+    private static final String OFFSET_FILE = "events.offset";
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path dir;
+    private final long segmentBytes;
+    // 시작 offset -> segment. 마지막 segment 에만 쓴다.
+    private final ConcurrentNavigableMap<Long, FileChannel> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel offsetFile;
+    private final Object syncLock = new Object();
+    private long writeOffset;
+    private volatile long syncedOffset;
+    private long committedOffset;
+
+    public record Entry(byte[] data, long endOffset) {
+    }
+
+    public OutboxLog(
+        @Value("${app.outbox.path:${java.io.tmpdir}/composite-outbox}") String directory,
+        @Value("${app.outbox.segmentBytes:16777216}") long segmentBytes
+    ) {
+        this.dir = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(dir);
+            migrateLegacyLog();
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.filter(OutboxLog::isSegment).toList()) {
+                    segments.put(baseOffsetOf(file), open(file));
+                }
+            }
+            if (segments.isEmpty()) {
+                segments.put(0L, open(segmentPath(0)));
+            }
+            this.offsetFile = FileChannel.open(dir.resolve(OFFSET_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            this.writeOffset = recover();
+            this.syncedOffset = writeOffset;
+            this.committedOffset = Math.min(Math.max(readCommittedOffset(), segments.firstKey()), writeOffset);
+            deleteCommittedSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open outbox: " + directory, e);
+        }
+
+        LOG.info("Opened outbox at {}, segments = {}, pending bytes = {}", directory, segments.size(), pendingBytes());
+    }
+
+    /**
+     * 레코드들을 로그 끝에 붙이고 디스크에 기록될 때까지 기다린다.
+     */
+    public void append(List<byte[]> records) {
+        int size = records.stream().mapToInt(data -> RECORD_HEADER_SIZE + data.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] data : records) {
+            buffer.putInt(data.length);
+            buffer.putInt(crcOf(data));
+            buffer.put(data);
+        }
+        buffer.flip();
+
+        long end;
+        synchronized (this) {
+            try {
+                Map.Entry<Long, FileChannel> active = segments.lastEntry();
+                if (writeOffset > active.getKey() && writeOffset - active.getKey() + size > segmentBytes) {
+                    active = roll(active.getValue());
+                }
+                long position = writeOffset - active.getKey();
+                while (buffer.hasRemaining()) {
+                    position += active.getValue().write(buffer, position);
+                }
+                writeOffset = active.getKey() + position;
+                end = writeOffset;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to the outbox", e);
+            }
+        }
+        sync(end);
+    }
+
+    /**
+     * fromOffset 부터 최대 maxRecords 개의 레코드를 읽는다. 디스크에 기록이 끝난 레코드만 읽으며 append() 와 동시에 호출해도 된다.
+     * commit() 이 segment 를 삭제하므로 read() 와 commit() 은 같은 스레드(relay)에서 호출해야 한다.
+     */
+    public List<Entry> read(long fromOffset, int maxRecords) {
+        long end = syncedOffset;
+
+        List<Entry> entries = new ArrayList<>();
+        long position = fromOffset;
+        try {
+            while (entries.size() < maxRecords && position + RECORD_HEADER_SIZE <= end) {
+                // 레코드는 segment 에 걸쳐 기록되지 않으므로 시작 위치가 속한 segment 에서 모두 읽는다.
+                Map.Entry<Long, FileChannel> segment = segments.floorEntry(position);
+                long local = position - segment.getKey();
+                ByteBuffer header = readFully(segment.getValue(), local, RECORD_HEADER_SIZE);
+                int length = header.getInt();
+                ByteBuffer data = readFully(segment.getValue(), local + RECORD_HEADER_SIZE, length);
+                position += RECORD_HEADER_SIZE + length;
+                entries.add(new Entry(data.array(), position));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read from the outbox", e);
+        }
+        return entries;
+    }
+
+    /**
+     * offset 까지 전달이 끝났음을 기록하고, 모든 레코드가 전달된 segment 를 삭제한다.
+     *
+     * @return 다음에 읽을 위치
+     */
+    public synchronized long commit(long offset) {
+        try {
+            // offset 을 먼저 기록해야 segment 를 삭제한 뒤 종료되어도 삭제된 위치부터 다시 읽지 않는다.
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+            offsetFile.write(buffer, 0);
+            offsetFile.force(false);
+            committedOffset = offset;
+            deleteCommittedSegments();
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit the outbox offset", e);
+        }
+    }
+
+    public synchronized long committedOffset() {
+        return committedOffset;
+    }
+
+    public synchronized long pendingBytes() {
+        return writeOffset - committedOffset;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        for (FileChannel segment : segments.values()) {
+            segment.close();
+        }
+        offsetFile.close();
+    }
+
+    /**
+     * end 까지 디스크에 기록되었는지 확인하고, 아니면 fsync 한다. fsync 하는 동안 다른 스레드가 기록한 레코드는
+     * 그 스레드가 syncLock 을 얻은 뒤 한 번의 fsync 로 함께 기록한다.
+     */
+    private void sync(long end) {
+        synchronized (syncLock) {
+            if (syncedOffset >= end) {
+                return;
+            }
+            long target;
+            FileChannel active;
+            synchronized (this) {
+                target = writeOffset;
+                active = segments.lastEntry().getValue();
+            }
+            try {
+                // 이전 segment 는 roll() 에서 fsync 했으므로 마지막 segment 만 fsync 하면 된다.
+                active.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync the outbox", e);
+            }
+            syncedOffset = target;
+        }
+    }
+
+    /**
+     * 현재 segment 를 디스크에 기록하고 writeOffset 에서 시작하는 새 segment 를 만든다.
+     */
+    private Map.Entry<Long, FileChannel> roll(FileChannel current) throws IOException {
+        current.force(false);
+        FileChannel next = open(segmentPath(writeOffset));
+        segments.put(writeOffset, next);
+        LOG.debug("Rolled the outbox to a new segment at offset {}", writeOffset);
+        return segments.lastEntry();
+    }
+
+    /**
+     * 다음 segment 의 시작 위치까지 전달이 끝난 segment 를 삭제한다. 마지막 segment 는 삭제하지 않는다.
+     */
+    private void deleteCommittedSegments() throws IOException {
+        Map.Entry<Long, FileChannel> first = segments.firstEntry();
+        Long next;
+        while ((next = segments.higherKey(first.getKey())) != null && next <= committedOffset) {
+            segments.remove(first.getKey());
+            first.getValue().close();
+            Files.deleteIfExists(segmentPath(first.getKey()));
+            LOG.debug("Deleted the delivered outbox segment at offset {}", first.getKey());
+            first = segments.firstEntry();
+        }
+    }
+
+    private long readCommittedOffset() throws IOException {
+        if (offsetFile.size() < Long.BYTES) {
+            return 0;
+        }
+        return readFully(offsetFile, 0, Long.BYTES).getLong();
+    }
+
+    /**
+     * 마지막 segment 에서 마지막으로 기록된 온전한 레코드의 끝 위치를 찾고, 그 뒤의 일부만 기록된 레코드는 잘라낸다.
+     * 이전 segment 는 roll() 에서 fsync 했으므로 온전하다.
+     */
+    private long recover() throws IOException {
+        Map.Entry<Long, FileChannel> last = segments.lastEntry();
+        FileChannel channel = last.getValue();
+        long size = channel.size();
+        long position = 0;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer header = readFully(channel, position, RECORD_HEADER_SIZE);
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            if (crcOf(readFully(channel, position + RECORD_HEADER_SIZE, length).array()) != crc) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            LOG.warn("Truncating {} bytes of an incomplete outbox record", size - position);
+            channel.truncate(position);
+            channel.force(false);
+        }
+        return last.getKey() + position;
+    }
+
+    /**
+     * segment 로 나누기 전의 로그 파일(events.log)은 offset 0 에서 시작하는 segment 로 사용한다.
+     */
+    private void migrateLegacyLog() throws IOException {
+        Path legacy = dir.resolve(LEGACY_LOG_FILE);
+        if (Files.exists(legacy) && !Files.exists(segmentPath(0))) {
+            Files.move(legacy, segmentPath(0));
+        }
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return dir.resolve(SEGMENT_PREFIX + String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of outbox file at " + position);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int crcOf(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
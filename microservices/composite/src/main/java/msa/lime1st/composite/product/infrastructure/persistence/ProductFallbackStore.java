@@ -0,0 +1,285 @@
+package msa.lime1st.composite.product.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import msa.lime1st.api.core.product.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * product 서킷 브레이커가 열렸을 때 사용할 마지막으로 확인된 product 저장소.
+ * <p>
+ * 고정 크기 슬롯으로 구성된 open addressing 해시 테이블을 memory-mapped 파일에 둔다.
+ * 데이터가 힙 밖(off-heap)에 있으므로 수백만 건을 저장해도 GC 부담이 없고, 재시작 후에도 유지된다.
+ * <p>
+ * 슬롯 레이아웃 (SLOT_SIZE bytes):
+ * state(1) | padding(3) | productId(4) | weight(4) | storedAt(8) | nameLength(2) | name(MAX_NAME_BYTES)
+ */
+@Component
+public class ProductFallbackStore implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductFallbackStore.class);
+
+    private static final int MAGIC = 0x50464231;    // "PFB1"
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 128;
+    private static final int MAX_PROBE = 16;
+
+    /**
+     * 저장소의 @Version 은 0 부터 시작하므로 음수 version 으로 fallback 에서 나온 응답을 구분한다.
+     */
+    public static final int FALLBACK_VERSION = -1;
+
+    private static final byte STATE_EMPTY = 0;
+    private static final byte STATE_USED = 1;
+    private static final byte STATE_DELETED = 2;
+
+    private static final int OFFSET_STATE = 0;
+    private static final int OFFSET_PRODUCT_ID = 4;
+    private static final int OFFSET_WEIGHT = 8;
+    private static final int OFFSET_STORED_AT = 12;
+    private static final int OFFSET_NAME_LENGTH = 20;
+    private static final int OFFSET_NAME = 22;
+    private static final int MAX_NAME_BYTES = SLOT_SIZE - OFFSET_NAME;
+
+    private final int capacity;
+    private final int mask;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter writeCounter;
+    private final Timer stalenessTimer;
+
+    public ProductFallbackStore(
+        @Value("${app.fallback-store.path:${java.io.tmpdir}/composite-product-fallback.dat}") String path,
+        @Value("${app.fallback-store.capacity:1048576}") int capacity,
+        MeterRegistry registry
+    ) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Fallback store capacity must be a power of two: " + capacity);
+        }
+        if ((long) capacity * SLOT_SIZE + HEADER_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Fallback store capacity is too large: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+
+        try {
+            Path file = Path.of(path);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open fallback store: " + path, e);
+        }
+
+        initializeHeader();
+        LOG.info("Opened product fallback store at {} with capacity = {}, entries = {}", path, capacity, size.get());
+
+        this.hitCounter = Counter.builder("composite.fallback.lookups")
+            .tag("result", "hit")
+            .register(registry);
+        this.missCounter = Counter.builder("composite.fallback.lookups")
+            .tag("result", "miss")
+            .register(registry);
+        this.writeCounter = Counter.builder("composite.fallback.writes")
+            .register(registry);
+        this.stalenessTimer = Timer.builder("composite.fallback.staleness")
+            .description("Age of the product served from the fallback store")
+            .publishPercentileHistogram()
+            .register(registry);
+        Gauge.builder("composite.fallback.size", size, AtomicInteger::get)
+            .register(registry);
+    }
+
+    /**
+     * product 를 저장한다. 같은 productId 가 있으면 덮어쓰고, probe 범위가 가득 차면 가장 오래된 항목을 교체한다.
+     */
+    public void put(int productId, String name, int weight) {
+        byte[] nameBytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            LOG.debug("Skip storing productId: {} in fallback store, name is too long ({} bytes)",
+                productId, nameBytes.length);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlotForWrite(productId);
+            int offset = offsetOf(slot);
+            if (buffer.get(offset + OFFSET_STATE) != STATE_USED) {
+                size.incrementAndGet();
+            }
+            buffer.putInt(offset + OFFSET_PRODUCT_ID, productId);
+            buffer.putInt(offset + OFFSET_WEIGHT, weight);
+            buffer.putLong(offset + OFFSET_STORED_AT, System.currentTimeMillis());
+            buffer.putShort(offset + OFFSET_NAME_LENGTH, (short) nameBytes.length);
+            buffer.put(offset + OFFSET_NAME, nameBytes);
+            buffer.put(offset + OFFSET_STATE, STATE_USED);
+            writeCounter.increment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ProductResponse response) {
+        put(response.productId(), response.name(), response.weight());
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(productId);
+            if (slot >= 0) {
+                buffer.put(offsetOf(slot) + OFFSET_STATE, STATE_DELETED);
+                size.decrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 저장된 product 를 조회하고 hit/miss 및 staleness 메트릭을 기록한다.
+     * 반환하는 응답은 오래되었을 수 있으므로 version 을 FALLBACK_VERSION 으로 표시한다.
+     */
+    public Optional<ProductResponse> get(int productId, String serviceAddress) {
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(productId);
+            if (slot < 0) {
+                missCounter.increment();
+                return Optional.empty();
+            }
+
+            int offset = offsetOf(slot);
+            int weight = buffer.getInt(offset + OFFSET_WEIGHT);
+            long storedAt = buffer.getLong(offset + OFFSET_STORED_AT);
+            byte[] nameBytes = new byte[buffer.getShort(offset + OFFSET_NAME_LENGTH)];
+            buffer.get(offset + OFFSET_NAME, nameBytes);
+
+            hitCounter.increment();
+            stalenessTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - storedAt)));
+
+            return Optional.of(ProductResponse.of(
+                productId,
+                new String(nameBytes, StandardCharsets.UTF_8),
+                weight,
+                FALLBACK_VERSION,
+                serviceAddress));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean isFallback(ProductResponse response) {
+        return response.version() == FALLBACK_VERSION;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int findSlot(int productId) {
+        int slot = indexOf(productId);
+        for (int probe = 0; probe < MAX_PROBE; probe++, slot = (slot + 1) & mask) {
+            int offset = offsetOf(slot);
+            byte state = buffer.get(offset + OFFSET_STATE);
+            if (state == STATE_EMPTY) {
+                return -1;
+            }
+            if (state == STATE_USED && buffer.getInt(offset + OFFSET_PRODUCT_ID) == productId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findSlotForWrite(int productId) {
+        int existing = findSlot(productId);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        // 빈 슬롯 또는 삭제된 슬롯을 재사용하고, 없다면 probe 범위 안에서 가장 오래된 항목을 교체한다.
+        int slot = indexOf(productId);
+        int oldestSlot = slot;
+        long oldestStoredAt = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBE; probe++, slot = (slot + 1) & mask) {
+            int offset = offsetOf(slot);
+            if (buffer.get(offset + OFFSET_STATE) != STATE_USED) {
+                return slot;
+            }
+            long storedAt = buffer.getLong(offset + OFFSET_STORED_AT);
+            if (storedAt < oldestStoredAt) {
+                oldestStoredAt = storedAt;
+                oldestSlot = slot;
+            }
+        }
+        return oldestSlot;
+    }
+
+    private void initializeHeader() {
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == capacity) {
+            int used = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (buffer.get(offsetOf(slot) + OFFSET_STATE) == STATE_USED) {
+                    used++;
+                }
+            }
+            size.set(used);
+            return;
+        }
+
+        LOG.info("Initializing a new product fallback store, capacity = {}", capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            buffer.put(offsetOf(slot) + OFFSET_STATE, STATE_EMPTY);
+        }
+        buffer.putInt(4, capacity);
+        buffer.putInt(0, MAGIC);
+        buffer.force();
+    }
+
+    private int indexOf(int productId) {
+        int h = productId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int offsetOf(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+}
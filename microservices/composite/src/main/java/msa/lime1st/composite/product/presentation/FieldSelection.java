@@ -0,0 +1,141 @@
+package msa.lime1st.composite.product.presentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import msa.lime1st.api.composite.product.ProductAggregateResponse;
+import msa.lime1st.api.composite.product.RecommendationSummary;
+import msa.lime1st.api.composite.product.ReviewSummary;
+import msa.lime1st.util.exception.InvalidInputException;
+
+/**
+ * getProduct 의 fields 파라미터 (sparse fieldset).
+ * <p>
+ * "recommendations", "reviews", "serviceAddresses" 는 해당 항목 전체를, "reviews.author" 처럼 점으로 구분된 필드는
+ * 그 필드만 요청한다. 하위 필드는 core 서비스에 projection 으로 전달된다.
+ * product 필드(productId, name, weight)는 항상 포함된다.
+ */
+record FieldSelection(
+    boolean all,
+    boolean recommendations,
+    List<String> recommendationFields,
+    boolean reviews,
+    List<String> reviewFields,
+    boolean serviceAddresses
+) {
+
+    private static final Set<String> PRODUCT_FIELDS = Set.of("productId", "name", "weight");
+    private static final Set<String> RECOMMENDATION_FIELDS = Set.of("recommendationId", "author", "rate", "content");
+    private static final Set<String> REVIEW_FIELDS = Set.of("reviewId", "author", "subject", "content");
+
+    static final FieldSelection ALL = new FieldSelection(true, true, List.of(), true, List.of(), true);
+
+    static FieldSelection parse(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+
+        boolean recommendations = false;
+        boolean reviews = false;
+        boolean serviceAddresses = false;
+        List<String> recommendationFields = new ArrayList<>();
+        List<String> reviewFields = new ArrayList<>();
+        boolean allRecommendationFields = false;
+        boolean allReviewFields = false;
+
+        for (String field : fields) {
+            String trimmed = field.trim();
+            int dot = trimmed.indexOf('.');
+            String parent = dot < 0 ? trimmed : trimmed.substring(0, dot);
+            String child = dot < 0 ? null : trimmed.substring(dot + 1);
+
+            switch (parent) {
+                case "recommendations" -> {
+                    recommendations = true;
+                    allRecommendationFields |= child == null;
+                    addChild(recommendationFields, RECOMMENDATION_FIELDS, trimmed, child);
+                }
+                case "reviews" -> {
+                    reviews = true;
+                    allReviewFields |= child == null;
+                    addChild(reviewFields, REVIEW_FIELDS, trimmed, child);
+                }
+                case "serviceAddresses" -> serviceAddresses = true;
+                default -> {
+                    if (!PRODUCT_FIELDS.contains(trimmed)) {
+                        throw new InvalidInputException("Invalid field: " + trimmed);
+                    }
+                }
+            }
+        }
+
+        return new FieldSelection(
+            false,
+            recommendations,
+            allRecommendationFields ? List.of() : List.copyOf(recommendationFields),
+            reviews,
+            allReviewFields ? List.of() : List.copyOf(reviewFields),
+            serviceAddresses
+        );
+    }
+
+    /**
+     * 요청하지 않은 항목을 응답에서 뺀다.
+     */
+    ProductAggregateResponse apply(ProductAggregateResponse response) {
+        if (all) {
+            return response;
+        }
+        return ProductAggregateResponse.of(
+            response.productId(),
+            response.name(),
+            response.weight(),
+            recommendations ? project(response.recommendations(), recommendationFields, this::projectRecommendation) : null,
+            reviews ? project(response.reviews(), reviewFields, this::projectReview) : null,
+            reviews ? response.nextReviewAfter() : null,
+            serviceAddresses ? response.serviceAddresses() : null,
+            response.missing()
+        );
+    }
+
+    private RecommendationSummary projectRecommendation(RecommendationSummary summary) {
+        return RecommendationSummary.of(
+            summary.recommendationId(),
+            recommendationFields.contains("author") ? summary.author() : null,
+            recommendationFields.contains("rate") ? summary.rate() : 0,
+            recommendationFields.contains("content") ? summary.content() : null
+        );
+    }
+
+    private ReviewSummary projectReview(ReviewSummary summary) {
+        return ReviewSummary.of(
+            summary.reviewId(),
+            reviewFields.contains("author") ? summary.author() : null,
+            reviewFields.contains("subject") ? summary.subject() : null,
+            reviewFields.contains("content") ? summary.content() : null
+        );
+    }
+
+    /**
+     * 캐시된 전체 응답에서 꺼낸 경우에도 요청한 하위 필드만 남도록 한다. 하위 필드가 없으면 그대로 반환한다.
+     */
+    private static <T> List<T> project(List<T> summaries, List<String> fields, UnaryOperator<T> projection) {
+        if (summaries == null || fields.isEmpty()) {
+            return summaries;
+        }
+        return summaries.stream().map(projection).toList();
+    }
+
+    private static void addChild(List<String> children, Set<String> allowed, String field, String child) {
+        if (child == null) {
+            return;
+        }
+        if (!allowed.contains(child)) {
+            throw new InvalidInputException("Invalid field: " + field);
+        }
+        if (!children.contains(child)) {
+            children.add(child);
+        }
+    }
+}
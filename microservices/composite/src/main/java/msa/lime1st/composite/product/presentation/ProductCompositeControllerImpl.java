@@ -1,10 +1,14 @@
 package msa.lime1st.composite.product.presentation;
 
 import java.net.URL;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import msa.lime1st.api.composite.product.ProductAggregatePart;
 import msa.lime1st.api.composite.product.ProductAggregateRequest;
 import msa.lime1st.api.composite.product.ProductAggregateResponse;
 import msa.lime1st.api.composite.product.ProductCompositeApi;
@@ -17,33 +21,57 @@ import msa.lime1st.api.core.recommendation.RecommendationRequest;
 import msa.lime1st.api.core.recommendation.RecommendationResponse;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.composite.product.infrastructure.cache.ProductAggregateCache;
+import msa.lime1st.composite.product.infrastructure.persistence.ProductFallbackStore;
+import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.util.http.ApiUtil;
+import msa.lime1st.util.http.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @RestController
 public class ProductCompositeControllerImpl implements ProductCompositeApi {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProductCompositeControllerImpl.class);
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final SecurityContext nullSecCtx = new SecurityContextImpl();
 
     private final ApiUtil apiUtil;
     private final ProductCompositeIntegration integration;
+    private final ProductAggregateCache aggregateCache;
+    private final Duration latencyBudget;
+    private final boolean warmCacheWithLateResults;
+    private final int reviewPageSize;
 
     public ProductCompositeControllerImpl(
         ApiUtil apiUtil,
-        ProductCompositeIntegration integration
+        ProductCompositeIntegration integration,
+        ProductAggregateCache aggregateCache,
+        @Value("${app.latency-budget.enabled:false}") boolean latencyBudgetEnabled,
+        @Value("${app.latency-budget.budgetMillis:300}") long latencyBudgetMillis,
+        @Value("${app.latency-budget.warmCache:true}") boolean warmCacheWithLateResults,
+        @Value("${app.review.pageSize:100}") int reviewPageSize
     ) {
         this.apiUtil = apiUtil;
         this.integration = integration;
+        this.aggregateCache = aggregateCache;
+        this.latencyBudget = latencyBudgetEnabled ? Duration.ofMillis(latencyBudgetMillis) : null;
+        this.warmCacheWithLateResults = warmCacheWithLateResults;
+        this.reviewPageSize = reviewPageSize;
+        LOG.info("Latency budget for getProduct = {}, warm cache with late results = {}",
+            latencyBudget, warmCacheWithLateResults);
     }
 
     @Override
@@ -54,10 +82,6 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
             LOG.debug("2. createCompositeProduct: creates a new composite entity for productId: {}",
                 aggregateRequest.productId());
 
-            List<Mono<?>> monoList = new ArrayList<>();
-
-            monoList.add(getLogAuthorizationInfoMono());
-
             // Product 등록
             ProductRequest productRequest = ProductRequest.of(
                 aggregateRequest.productId(),
@@ -65,50 +89,42 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
                 aggregateRequest.weight(),
                 null
             );
-            monoList.add(integration.postProduct(productRequest));
-
-            // Recommendations 등록: stream 사용
-            if (aggregateRequest.recommendations() != null) {
-                monoList.addAll(
-                    aggregateRequest.recommendations().stream()
-                        .map(rs -> RecommendationRequest.of(
-                            aggregateRequest.productId(),
-                            rs.recommendationId(),
-                            rs.author(),
-                            rs.rate(),
-                            rs.content(),
-                            null
-                        ))
-                        .map(integration::postRecommendation)
-                        .toList()
-                );
-            }
 
-            // Reviews 등록: forEach 사용
-            if (aggregateRequest.reviews() != null) {
-                aggregateRequest.reviews().forEach(rs -> {
-                    ReviewRequest reviewRequest = ReviewRequest.of(
+            // Recommendations, Reviews 등록: 항목 수와 관계없이 각각 이벤트 하나로 발행한다.
+            List<RecommendationRequest> recommendationRequests = aggregateRequest.recommendations() == null
+                ? List.of()
+                : aggregateRequest.recommendations().stream()
+                    .map(rs -> RecommendationRequest.of(
+                        aggregateRequest.productId(),
+                        rs.recommendationId(),
+                        rs.author(),
+                        rs.rate(),
+                        rs.content(),
+                        null
+                    ))
+                    .toList();
+
+            List<ReviewRequest> reviewRequests = aggregateRequest.reviews() == null
+                ? List.of()
+                : aggregateRequest.reviews().stream()
+                    .map(rs -> ReviewRequest.of(
                         aggregateRequest.productId(),
                         rs.reviewId(),
                         rs.author(),
                         rs.subject(),
                         rs.content(),
                         null
-                    );
-                    monoList.add(integration.postReview(reviewRequest));
-                });
-            }
+                    ))
+                    .toList();
 
             LOG.debug("createCompositeProduct: composite entities created for productId: {}",
                 aggregateRequest.productId());
 
-            /*
-            Mono.zip()은 여러 개의 Mono 를 동시에 실행하고, 모든 Mono 가 완료될 때까지 기다립니다.
-            모든 Mono 가 성공하면, 그 결과들을 조합해서 새로운 결과를 만들 수 있는데, 여기선 r -> "" 람다를 통해 결과는 무시하고 빈 문자열만 리턴하고 있어요.
-            마지막 .then()은 Mono<Void>를 반환하며, 결과는 무시하고 성공 여부만 신경 쓰겠다는 의미입니다.
-            즉, 이 부분은: "모든 작업이 완료될 때까지 기다린 뒤, 아무 결과도 반환하지 않음"을 의미하는 코드입니다.
-             */
-            return Mono.zip(monoList, result -> "")
+            // 모든 이벤트는 outbox 에 한 번에 기록된다. 응답은 디스크 기록이 끝나면 반환되고, 브로커 전달은 relay 가 맡는다.
+            return Mono.when(
+                    getLogAuthorizationInfoMono(),
+                    integration.postProductAggregate(productRequest, recommendationRequests, reviewRequests)
+                )
                 .doOnError(ex -> LOG.warn("createCompositeProduct failed: {}", ex.toString()))
                 .then();
 
@@ -122,32 +138,292 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
     public Mono<ProductAggregateResponse> getProduct(
         int productId,
         int delay,
-        int faultPercent
+        int faultPercent,
+        List<String> fields
     ) {
         LOG.info("Will get composite product info for product.id = {}", productId);
 
+        FieldSelection selection = FieldSelection.parse(fields);
+
+        // delay, faultPercent 는 장애 테스트용 파라미터이므로 캐시를 거치지 않는다.
+        // 캐시에는 전체 응답만 저장하고, fields 가 지정되면 캐시된 응답에서 필요한 항목만 골라 반환한다.
+        boolean cacheable = delay == 0 && faultPercent == 0;
+        if (cacheable) {
+            ProductAggregateCache.Entry cached = aggregateCache.get(productId);
+            if (cached != null) {
+                LOG.debug("Found product aggregate for product.id = {} in the near cache", productId);
+                return getLogAuthorizationInfoMono().then(respond(selection, cached));
+            }
+        }
+        long cacheStamp = aggregateCache.stamp(productId);
+
         Mono<ProductResponse> productMono = integration.getProduct(
             productId,
             delay,
             faultPercent
         );
-        Mono<List<RecommendationResponse>> recommendationsMono = integration.getRecommendations(productId)
-            .collectList();
-        Mono<List<ReviewResponse>> reviewsMono = integration.getReviews(productId).collectList();
 
+        // 요청하지 않은 항목은 core 서비스를 호출하지 않고, 하위 필드가 지정되면 projection 으로 조회한다.
+        Mono<Section<RecommendationResponse>> recommendations = !selection.recommendations() ? Section.skipped()
+            : section("recommendations", selection.recommendationFields().isEmpty()
+                ? integration.getRecommendations(productId)
+                : integration.getRecommendations(productId, selection.recommendationFields()));
+        Mono<Section<ReviewResponse>> reviews = !selection.reviews() ? Section.skipped()
+            : section("reviews", selection.reviewFields().isEmpty()
+                ? integration.getReviews(productId)
+                : integration.getReviews(productId, selection.reviewFields()));
+
+        if (latencyBudget != null) {
+            return getProductWithinBudget(productId, selection, cacheable, cacheStamp,
+                productMono, recommendations, reviews);
+        }
+
+        return assemble(productId, selection, cacheable, cacheStamp, productMono, recommendations, reviews);
+    }
+
+    /**
+     * product 가 도착했고 요청을 받은 뒤 latencyBudget 이 지났으면 recommendation, review 를 더 기다리지 않고 응답한다.
+     * 도착하지 않은 항목은 빈 목록으로 채우고 missing 으로 표시하므로 응답 시간은 가장 느린 core 서비스가 아닌 budget 에 맞춰진다.
+     * product 는 응답의 중심이므로 budget 과 관계없이 기다린다(product 의 TimeLimiter 가 상한이다).
+     * <p>
+     * warmCacheWithLateResults 가 true 이고 전체 응답을 캐시할 수 있는 요청이면 budget 이 지나도 늦은 호출을 계속하고,
+     * 늦은 결과까지 모아 전체 응답을 캐시해 다음 요청은 전체 응답을 바로 받도록 한다.
+     * 그렇지 않으면 늦은 호출의 결과를 쓸 곳이 없으므로 budget 이 지나면 취소한다.
+     */
+    private Mono<ProductAggregateResponse> getProductWithinBudget(
+        int productId,
+        FieldSelection selection,
+        boolean cacheable,
+        long cacheStamp,
+        Mono<ProductResponse> productMono,
+        Mono<Section<RecommendationResponse>> recommendationsMono,
+        Mono<Section<ReviewResponse>> reviewsMono
+    ) {
+        boolean keepLateCalls = warmCacheWithLateResults && cacheable && selection.all();
+
+        // cache() 는 구독자가 모두 취소해도 호출을 계속하고 결과를 보관한다. 늦은 결과로 캐시를 채울 때 다시 구독한다.
+        // 캐시를 채우지 않으면 cache() 를 쓰지 않으므로 timeout 이 늦은 호출을 취소한다.
+        Sinks.Empty<Void> productArrived = Sinks.empty();
+        Mono<ProductResponse> trackedProduct = productMono
+            .doOnSuccess(ignored -> productArrived.tryEmitEmpty());
+        Mono<ProductResponse> product = keepLateCalls ? trackedProduct.cache() : trackedProduct;
+        Mono<Section<RecommendationResponse>> recommendations = keepLateCalls ? recommendationsMono.cache() : recommendationsMono;
+        Mono<Section<ReviewResponse>> reviews = keepLateCalls ? reviewsMono.cache() : reviewsMono;
+
+        Mono<Void> budgetExceeded = Mono.when(Mono.delay(latencyBudget), productArrived.asMono());
+
+        return assemble(productId, selection, cacheable, cacheStamp,
+                product,
+                recommendations.timeout(budgetExceeded, Mono.fromSupplier(() -> Section.late("recommendations"))),
+                reviews.timeout(budgetExceeded, Mono.fromSupplier(() -> Section.late("reviews"))))
+            .doOnNext(response -> {
+                if (response.missing() != null && keepLateCalls) {
+                    warmCache(productId, cacheStamp, product, recommendations, reviews);
+                }
+            });
+    }
+
+    /**
+     * 늦게 도착한 결과까지 모아 전체 응답을 캐시한다. 그 사이에 무효화되었으면 cacheStamp 로 걸러진다.
+     */
+    private void warmCache(
+        int productId,
+        long cacheStamp,
+        Mono<ProductResponse> product,
+        Mono<Section<RecommendationResponse>> recommendations,
+        Mono<Section<ReviewResponse>> reviews
+    ) {
+        Mono.zip(product, recommendations, reviews)
+            .filter(tuple -> !ProductFallbackStore.isFallback(tuple.getT1())
+                && !tuple.getT2().missing() && !tuple.getT3().missing())
+            .subscribe(
+                tuple -> {
+                    ProductAggregateResponse response = toProductAggregateResponse(
+                        tuple.getT1(),
+                        tuple.getT2().items(),
+                        tuple.getT3().items(),
+                        nextReviewAfter(tuple.getT3().items()),
+                        apiUtil.getServiceAddress(),
+                        null);
+                    aggregateCache.put(productId, response,
+                        aggregateETag(tuple.getT1(), tuple.getT2().items(), tuple.getT3().items()), cacheStamp);
+                    LOG.debug("Cached the product aggregate for product.id = {} with late results", productId);
+                },
+                error -> LOG.debug("Could not cache late results for product.id = {}: {}", productId, error.toString()));
+    }
+
+    private Mono<ProductAggregateResponse> assemble(
+        int productId,
+        FieldSelection selection,
+        boolean cacheable,
+        long cacheStamp,
+        Mono<ProductResponse> productMono,
+        Mono<Section<RecommendationResponse>> recommendations,
+        Mono<Section<ReviewResponse>> reviews
+    ) {
         return Mono.zip(
                 getSecurityContextMono(),
                 productMono,
+                recommendations,
+                reviews)
+            .map(tuple -> {
+                // product 서킷 브레이커가 열려 fallback 저장소의 product 로 응답하면 오래된 값일 수 있으므로 missing 으로 표시한다.
+                List<String> missing = Stream.concat(
+                        ProductFallbackStore.isFallback(tuple.getT2()) ? Stream.of("product") : Stream.empty(),
+                        Stream.of(tuple.getT3(), tuple.getT4())
+                            .filter(Section::missing)
+                            .map(Section::name))
+                    .toList();
+                // fields 로 review 필드를 지정하면 페이지로 나누지 않는 projection 으로 조회하므로 모두 받는다.
+                ProductAggregateResponse response = createProductAggregateResponse(
+                    tuple.getT1(),
+                    tuple.getT2(),
+                    tuple.getT3().items(),
+                    tuple.getT4().items(),
+                    selection.reviewFields().isEmpty() ? nextReviewAfter(tuple.getT4().items()) : null,
+                    apiUtil.getServiceAddress(),
+                    missing
+                );
+                // 일부가 빠진 응답에는 ETag 를 붙이지 않는다. 다음 요청에서 빠진 항목을 다시 조회해야 하기 때문이다.
+                String etag = missing.isEmpty()
+                    ? aggregateETag(tuple.getT2(), tuple.getT3().items(), tuple.getT4().items())
+                    : null;
+                return new ProductAggregateCache.Entry(response, etag);
+            })
+            .doOnNext(entry -> {
+                // 일부가 빠진 응답은 캐시하지 않는다. 캐시하면 TTL 동안 recommendation, review 가 빠진 응답이 나간다.
+                if (cacheable && selection.all() && entry.response().missing() == null) {
+                    aggregateCache.put(productId, entry.response(), entry.etag(), cacheStamp);
+                }
+            })
+            .flatMap(entry -> respond(selection, entry))
+            .doOnError(ex -> LOG.warn("getCompositeProduct failed: {}", ex.toString()))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    /**
+     * recommendation, review 조회가 실패하면(서킷 브레이커가 열린 경우 포함) 빈 목록으로 대체하고 missing 으로 표시한다.
+     */
+    private static <T> Mono<Section<T>> section(String name, Flux<T> items) {
+        return items.collectList()
+            .map(list -> new Section<>(name, list, false))
+            .onErrorResume(error -> {
+                LOG.warn("Will return the product aggregate without {}: {}", name, error.toString());
+                return Mono.just(new Section<>(name, List.of(), true));
+            });
+    }
+
+    /**
+     * 전체 응답은 ETag 를 붙이고 If-None-Match 와 일치하면 304 로 응답한다.
+     * fields 로 일부만 요청한 응답은 projection 결과에 version 이 없으므로 ETag 를 붙이지 않는다.
+     */
+    private Mono<ProductAggregateResponse> respond(FieldSelection selection, ProductAggregateCache.Entry entry) {
+        if (!selection.all() || entry.etag() == null) {
+            return Mono.just(selection.apply(entry.response()));
+        }
+        return ETags.checkNotModified(entry.etag(), entry.response());
+    }
+
+    /**
+     * 세 core 서비스 응답의 내용과 version 으로 만든 ETag. 어느 하나라도 추가, 삭제, 수정되거나 다시 만들어지면 값이 바뀐다.
+     */
+    private static String aggregateETag(
+        ProductResponse product,
+        List<RecommendationResponse> recommendations,
+        List<ReviewResponse> reviews
+    ) {
+        return ETags.of(
+            "product-composite",
+            product.withServiceAddress(null),
+            recommendations.stream().map(r -> r.withServiceAddress(null)).toList(),
+            reviews.stream().map(r -> r.withServiceAddress(null)).toList()
+        );
+    }
+
+    @Override
+    public Flux<ProductAggregatePart> getProductStream(int productId) {
+        LOG.info("Will stream composite product info for product.id = {}", productId);
+
+        return getLogAuthorizationInfoMono().thenMany(Flux.defer(() -> {
+            // 구독마다 첫 번째 recommendation, review 의 주소를 기록했다가 마지막 조각으로 보낸다.
+            AtomicReference<String> productAddress = new AtomicReference<>("");
+            AtomicReference<String> recommendationAddress = new AtomicReference<>("");
+            AtomicReference<String> reviewAddress = new AtomicReference<>("");
+
+            Flux<ProductAggregatePart> productPart = integration.getProduct(productId, 0, 0)
+                .doOnNext(p -> productAddress.set(p.serviceAddress()))
+                .map(p -> ProductAggregatePart.product(p.productId(), p.name(), p.weight()))
+                .flux();
+
+            Flux<ProductAggregatePart> recommendationParts = integration.streamRecommendations(productId)
+                .doOnNext(r -> recommendationAddress.compareAndSet("", r.serviceAddress()))
+                .map(r -> ProductAggregatePart.recommendation(productId, RecommendationSummary.of(
+                    r.recommendationId(),
+                    r.author(),
+                    r.rate(),
+                    r.content())));
+
+            Flux<ProductAggregatePart> reviewParts = integration.streamReviews(productId)
+                .doOnNext(r -> reviewAddress.compareAndSet("", r.serviceAddress()))
+                .map(r -> ProductAggregatePart.review(productId, ReviewSummary.of(
+                    r.reviewId(),
+                    r.author(),
+                    r.subject(),
+                    r.content())));
+
+            Mono<ProductAggregatePart> addressesPart = Mono.fromSupplier(() ->
+                ProductAggregatePart.serviceAddresses(productId, ServiceAddresses.of(
+                    apiUtil.getServiceAddress(),
+                    productAddress.get(),
+                    reviewAddress.get(),
+                    recommendationAddress.get())));
+
+            // mergeSequential 은 세 호출을 동시에 시작하지만 product 조각이 먼저 나가도록 보장한다.
+            // recommendation 과 review 는 product 가 도착한 뒤부터 도착하는 순서대로 내보낸다.
+            return Flux.concat(
+                Flux.mergeSequential(
+                    productPart,
+                    Flux.merge(recommendationParts, reviewParts)),
+                addressesPart);
+        }))
+            .doOnError(ex -> LOG.warn("getCompositeProductStream failed: {}", ex.toString()))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    @Override
+    public Flux<ProductAggregateResponse> getProducts(List<Integer> productIds) {
+
+        if (productIds.isEmpty() || productIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException(
+                "Number of product ids must be between 1 and " + MAX_BATCH_SIZE + ": " + productIds.size());
+        }
+
+        List<Integer> distinctIds = productIds.stream().distinct().toList();
+        LOG.info("Will get composite product info for {} products", distinctIds.size());
+
+        // 제품 수와 관계없이 downstream 호출은 서비스마다 한 번씩, 총 세 번만 일어난다.
+        Mono<List<ProductResponse>> productsMono = integration.getProducts(distinctIds)
+            .collectList();
+        Mono<Map<Integer, List<RecommendationResponse>>> recommendationsMono =
+            integration.getRecommendationsByProductIds(distinctIds)
+                .collect(Collectors.groupingBy(RecommendationResponse::productId));
+        Mono<Map<Integer, List<ReviewResponse>>> reviewsMono =
+            integration.getReviewsByProductIds(distinctIds)
+                .collect(Collectors.groupingBy(ReviewResponse::productId));
+
+        return Mono.zip(
+                getLogAuthorizationInfoMono(),
+                productsMono,
                 recommendationsMono,
                 reviewsMono)
-            .map(tuple -> createProductAggregateResponse(
-                tuple.getT1(),
-                tuple.getT2(),
-                tuple.getT3(),
-                tuple.getT4(),
-                apiUtil.getServiceAddress()
-            ))
-            .doOnError(ex -> LOG.warn("getCompositeProduct failed: {}", ex.toString()))
+            .flatMapMany(tuple -> Flux.fromIterable(tuple.getT2())
+                .map(product -> toProductAggregateResponse(
+                    product,
+                    tuple.getT3().getOrDefault(product.productId(), List.of()),
+                    tuple.getT4().getOrDefault(product.productId(), List.of()),
+                    apiUtil.getServiceAddress()
+                )))
+            .doOnError(ex -> LOG.warn("getCompositeProducts failed: {}", ex.toString()))
             .log(LOG.getName(), Level.FINE);
     }
 
@@ -182,10 +458,32 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
         ProductResponse response,
         List<RecommendationResponse> recommendations,
         List<ReviewResponse> reviews,
-        String serviceAddress
+        Integer nextReviewAfter,
+        String serviceAddress,
+        List<String> missing
     ) {
         logAuthorizationInfo(context);
 
+        return toProductAggregateResponse(response, recommendations, reviews, nextReviewAfter, serviceAddress, missing);
+    }
+
+    private ProductAggregateResponse toProductAggregateResponse(
+        ProductResponse response,
+        List<RecommendationResponse> recommendations,
+        List<ReviewResponse> reviews,
+        String serviceAddress
+    ) {
+        return toProductAggregateResponse(response, recommendations, reviews, null, serviceAddress, null);
+    }
+
+    private ProductAggregateResponse toProductAggregateResponse(
+        ProductResponse response,
+        List<RecommendationResponse> recommendations,
+        List<ReviewResponse> reviews,
+        Integer nextReviewAfter,
+        String serviceAddress,
+        List<String> missing
+    ) {
         // 1. Setup response info
         int productId = response.productId();
         String name = response.name();
@@ -230,10 +528,20 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
             weight,
             recommendationSummaries,
             reviewSummaries,
-            serviceAddresses
+            nextReviewAfter,
+            serviceAddresses,
+            missing
         );
     }
 
+    /**
+     * getReviews(productId) 는 review 서비스의 첫 페이지(reviewPageSize)만 조회한다.
+     * 첫 페이지가 가득 찼으면 review 가 더 있을 수 있으므로 다음 페이지를 조회할 cursor(마지막 reviewId)를 반환한다.
+     */
+    private Integer nextReviewAfter(List<ReviewResponse> reviews) {
+        return reviews.size() < reviewPageSize ? null : reviews.get(reviews.size() - 1).reviewId();
+    }
+
     private Mono<SecurityContext> getLogAuthorizationInfoMono() {
         return getSecurityContextMono().doOnNext(this::logAuthorizationInfo);
     }
@@ -269,4 +577,19 @@ public class ProductCompositeControllerImpl implements ProductCompositeApi {
             }
         }
     }
+
+    /**
+     * recommendations 또는 reviews 조회 결과. missing 이면 조회에 실패해 items 가 비어 있다.
+     */
+    private record Section<T>(String name, List<T> items, boolean missing) {
+
+        static <T> Mono<Section<T>> skipped() {
+            return Mono.just(new Section<>("", List.of(), false));
+        }
+
+        static <T> Section<T> late(String name) {
+            LOG.debug("Will return the product aggregate without {}: latency budget exceeded", name);
+            return new Section<>(name, List.of(), true);
+        }
+    }
 }
@@ -2,13 +2,15 @@ package msa.lime1st.composite.product.presentation;
 
 import static reactor.core.publisher.Flux.empty;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.logging.Level;
 import msa.lime1st.api.core.product.ProductApi;
 import msa.lime1st.api.core.product.ProductRequest;
@@ -21,17 +23,26 @@ import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.core.review.ReviewResponse;
 import msa.lime1st.api.event.Event;
 import msa.lime1st.api.event.Event.Type;
+import msa.lime1st.composite.product.infrastructure.client.AdaptiveConcurrencyLimiter;
+import msa.lime1st.composite.product.infrastructure.client.DeadlinePropagation;
+import msa.lime1st.composite.product.infrastructure.client.DownstreamCall;
+import msa.lime1st.composite.product.infrastructure.client.DownstreamMetrics;
+import msa.lime1st.composite.product.infrastructure.client.HedgedRequestExecutor;
+import msa.lime1st.composite.product.infrastructure.client.RequestCoalescer;
+import msa.lime1st.composite.product.infrastructure.messaging.EventOutbox;
+import msa.lime1st.composite.product.infrastructure.messaging.EventOutbox.OutboxEvent;
+import msa.lime1st.composite.product.infrastructure.persistence.ProductFallbackStore;
+import msa.lime1st.util.exception.DeadlineExceededException;
 import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.util.exception.NotFoundException;
 import msa.lime1st.util.http.ApiUtil;
+import msa.lime1st.util.http.Deadline;
 import msa.lime1st.util.http.HttpErrorInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -51,21 +62,44 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
 
     private final Scheduler publishEventScheduler;
     private final WebClient webClient;
-    private final ObjectMapper mapper;
-    private final StreamBridge streamBridge;
+    private final EventOutbox outbox;
     private final ApiUtil apiUtil;
+    private final ProductFallbackStore fallbackStore;
+    private final RequestCoalescer coalescer;
+    private final HedgedRequestExecutor hedging;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final DownstreamMetrics metrics;
+    private final int reviewPageSize;
+    private final Duration productRetryWait;
 
     public ProductCompositeIntegration(
         Scheduler publishEventScheduler,
         WebClient.Builder webClientBuilder,
-        ObjectMapper mapper,
-        StreamBridge streamBridge,
-        ApiUtil apiUtil) {
+        EventOutbox outbox,
+        ApiUtil apiUtil,
+        ProductFallbackStore fallbackStore,
+        RequestCoalescer coalescer,
+        HedgedRequestExecutor hedging,
+        AdaptiveConcurrencyLimiter limiter,
+        DownstreamMetrics metrics,
+        DeadlinePropagation deadlinePropagation,
+        @Value("${app.review.pageSize:100}") int reviewPageSize,
+        @Value("${resilience4j.retry.instances.product.waitDuration:1000}") long productRetryWaitMillis) {
         this.publishEventScheduler = publishEventScheduler;
-        this.webClient = webClientBuilder.build();
-        this.mapper = mapper;
-        this.streamBridge = streamBridge;
+        // instanceFilter 는 @LoadBalanced 필터 다음에 실행되어야 하므로 공유 builder 를 복사해 마지막에 추가한다.
+        this.webClient = webClientBuilder.clone()
+            .filter(metrics.instanceFilter())
+            .filter(deadlinePropagation.filter())
+            .build();
+        this.outbox = outbox;
         this.apiUtil = apiUtil;
+        this.fallbackStore = fallbackStore;
+        this.coalescer = coalescer;
+        this.hedging = hedging;
+        this.limiter = limiter;
+        this.metrics = metrics;
+        this.reviewPageSize = reviewPageSize;
+        this.productRetryWait = Duration.ofMillis(productRetryWaitMillis);
     }
 
     @Override
@@ -82,7 +116,36 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
         }).subscribeOn(publishEventScheduler);
     }
 
+    /**
+     * product 와 recommendation, review 생성 이벤트를 outbox 에 한 번에 기록한다.
+     * 일부 이벤트만 저장된 채로 종료되어 aggregate 의 일부가 유실되는 일이 없다.
+     */
+    public Mono<Void> postProductAggregate(
+        ProductRequest productRequest,
+        List<RecommendationRequest> recommendationRequests,
+        List<ReviewRequest> reviewRequests
+    ) {
+        int productId = productRequest.productId();
+        LOG.info("3. Post product aggregate request for productId: {}", productId);
+
+        return Mono.fromRunnable(() -> {
+            List<OutboxEvent> events = new ArrayList<>();
+            events.add(new OutboxEvent("products-out-0",
+                Event.create(Type.CREATE, productId, productRequest)));
+            if (!recommendationRequests.isEmpty()) {
+                events.add(new OutboxEvent("recommendations-out-0",
+                    Event.createBulk(productId, recommendationRequests)));
+            }
+            if (!reviewRequests.isEmpty()) {
+                events.add(new OutboxEvent("reviews-out-0",
+                    Event.createBulk(productId, reviewRequests)));
+            }
+            metrics.recordSend(events.stream().map(OutboxEvent::bindingName).toList(), () -> outbox.append(events));
+        }).subscribeOn(publishEventScheduler).then();
+    }
+
     @Override
+    @DownstreamCall("getProduct")
     @Retry(name = "product")
     @TimeLimiter(name = "product")
     @CircuitBreaker(name = "product", fallbackMethod = "getProductFallbackValue")
@@ -98,12 +161,32 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
         ).build(productId, delay, faultPercent);
         LOG.debug("Will call the getProduct API on URL: {}", url);
 
-        return webClient.get().uri(url)
-            .retrieve()
-            .bodyToMono(ProductResponse.class)
+        Mono<ProductResponse> call = metrics.record("getProduct", false, limiter.limit("product", webClient.get().uri(url)
+                .retrieve()
+                .bodyToMono(ProductResponse.class)))
+            .doOnNext(fallbackStore::put)
             .log(LOG.getName(), Level.FINE)
             // onErrorMap 메서드를 활용해 HTTP 계층의 예외를 자체 예외로 변경
             .onErrorMap(WebClientResponseException.class, this::handleException);
+
+        // delay, faultPercent 는 테스트용 매개변수이므로 지정된 경우에는 요청을 합치지 않는다.
+        if (delay != 0 || faultPercent != 0) {
+            return call.onErrorResume(WebClientResponseException.InternalServerError.class, this::failIfNoTimeToRetry);
+        }
+        return coalescer.coalesce("product", productId, () -> call)
+            .onErrorResume(WebClientResponseException.InternalServerError.class, this::failIfNoTimeToRetry);
+    }
+
+    /**
+     * deadline 까지 남은 시간이 재시도 대기 시간보다 짧으면 재시도해도 응답할 수 없으므로 DeadlineExceededException 으로 바꾼다.
+     * DeadlineExceededException 은 retryExceptions 에 없으므로 @Retry 가 더 기다리지 않고 바로 504 로 응답한다.
+     */
+    private Mono<ProductResponse> failIfNoTimeToRetry(WebClientResponseException.InternalServerError ex) {
+        return Mono.deferContextual(context -> Mono.error(Deadline.from(context)
+            .filter(deadline -> deadline.remaining().compareTo(productRetryWait) < 0)
+            .<Throwable>map(deadline -> new DeadlineExceededException(
+                "Not enough time left to retry getProduct: " + deadline.remaining().toMillis() + " ms", ex))
+            .orElse(ex)));
     }
 
     // fallback 메서드는 폴백을 지정한 메서드와 시그니처가 같아야 하고 마지막에 서킷 브레이커가 트리거하는 예외를 전달하기 위한 매개변수를 추가해야 한다.
@@ -117,20 +200,35 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
         LOG.warn("Creating a fail-fast fallback product for productId = {}, delay = {}, faultPercent = {} and exception = {} ",
             productId, delay, faultPercent, ex.toString());
 
-        // 캐시에 값이 없는 경우를 시뮬레이션 하고자 특정 id 의 반환 값에 예외를 던진다.
-        if (productId == 13) {
-            String errMsg = "Product Id: " + productId + " not found in fallback cache!";
-            LOG.warn(errMsg);
-            throw new NotFoundException(errMsg);
-        }
+        // 마지막으로 성공한 getProduct 응답과 products 이벤트로 채워진 로컬 저장소에서 조회한다.
+        return Mono.deferContextual(context -> fallbackStore.get(productId, apiUtil.getServiceAddress())
+            .map(response -> {
+                metrics.markOutcome(context, "fallback");
+                return Mono.just(response);
+            })
+            .orElseGet(() -> {
+                metrics.markOutcome(context, "fallback-miss");
+                String errMsg = "Product Id: " + productId + " not found in fallback cache!";
+                LOG.warn(errMsg);
+                return Mono.error(new NotFoundException(errMsg));
+            }));
+    }
 
-        // fallback 로직은 보통 내부 캐시 등의 다른 곳에서 같은 id(productId) 를 이용해 조회하도록 구현한다.
-        // 여기서는 하드 코딩된 값을 반환한다.
-        return Mono.just(ProductResponse.of(
-            productId,
-            "Fallback product" + productId,
-            productId,
-            apiUtil.getServiceAddress()));
+    @Override
+    public Flux<ProductResponse> getProducts(List<Integer> productIds) {
+
+        URI url = UriComponentsBuilder.fromUriString(PRODUCT_SERVICE_URL + "/product")
+            .queryParam("productIds", productIds)
+            .build()
+            .toUri();
+        LOG.debug("Will call the getProducts API on URL: {}", url);
+
+        return metrics.record("getProducts", false, limiter.limit("product", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(ProductResponse.class)))
+            .doOnNext(fallbackStore::put)
+            .log(LOG.getName(), Level.FINE)
+            .onErrorMap(WebClientResponseException.class, this::handleException);
     }
 
     @Override
@@ -158,20 +256,73 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
         }).subscribeOn(publishEventScheduler);
     }
 
+    /**
+     * 같은 product 의 recommendation 들을 이벤트 하나(BULK_CREATE)로 발행한다. 소비자는 한 번의 bulk write 로 저장한다.
+     */
     @Override
+    public Flux<RecommendationResponse> postRecommendations(List<RecommendationRequest> requests) {
+
+        LOG.info("4. Post {} recommendation requests for productId: {}", requests.size(), requests.get(0).productId());
+
+        return Mono.fromCallable(() -> {
+            sendMessage("recommendations-out-0", Event.createBulk(
+                requests.get(0).productId(),
+                requests));
+            return requests.stream().map(RecommendationRequest::toResponse).toList();
+        }).subscribeOn(publishEventScheduler)
+            .flatMapIterable(list -> list);
+    }
+
+    /**
+     * product 와 달리 recommendation, review 의 오류는 composite 요청 전체를 실패시키지 않는다.
+     * 오류를 그대로 전달하면 호출한 쪽(ProductCompositeControllerImpl)에서 빈 목록으로 대체하고 응답에 missing 으로 표시한다.
+     * <p>
+     * 서킷 브레이커가 열려 있으면 core 서비스를 호출하지 않고 바로 CallNotPermittedException 으로 실패한다.
+     * recommendation 서비스가 내려가 있을 때 요청마다 connect timeout 만큼 기다리지 않기 위해서다.
+     */
+    @Override
+    @DownstreamCall(value = "getRecommendations", partialOnError = true)
+    @TimeLimiter(name = "recommendation")
+    @CircuitBreaker(name = "recommendation", fallbackMethod = "getRecommendationsCircuitOpen")
     public Flux<RecommendationResponse> getRecommendations(int productId) {
 
-        String url = RECOMMENDATION_SERVICE_URL + "/recommendation?productId=" + productId;
+        return coalescer.coalesce("recommendation", productId, () -> hedging.hedge("recommendation",
+                () -> recommendationFlux(productId).collectList()))
+            .flatMapIterable(list -> list);
+    }
 
-        LOG.debug("Will call the getRecommendations API on URL: {}", url);
+    private Flux<RecommendationResponse> getRecommendationsCircuitOpen(int productId, CallNotPermittedException ex) {
+        return circuitOpen("getRecommendations", productId, ex);
+    }
 
-        // product 와 달리 recommendation, review 에서는 예외가 발생하더라도 composite service 가
-        // 일부 결과를 반환할 수 있도록 전체 요청이 실패한 것으로 처리하지 않는다.
-        // 예외를 전파하는 대신 가능한 한 많은 정보를 호출자에게 돌려주기 위해 onErrorResume(error->empty())
-        // 메서드를 사용해 빈 recommendation 혹은 review 목록을 반환한다.
-        return webClient.get().uri(url)
-            .retrieve()
-            .bodyToFlux(RecommendationResponse.class)
+    private Flux<RecommendationResponse> getRecommendationsCircuitOpen(
+        int productId,
+        List<String> fields,
+        CallNotPermittedException ex
+    ) {
+        return circuitOpen("getRecommendations", productId, ex);
+    }
+
+    /**
+     * 요청을 합치거나 결과를 모으지 않고 recommendation 을 도착하는 대로 내보낸다. 스트리밍 응답에서 사용한다.
+     */
+    public Flux<RecommendationResponse> streamRecommendations(int productId) {
+        return recommendationFlux(productId)
+            .onErrorResume(error -> empty());
+    }
+
+    @Override
+    public Flux<RecommendationResponse> getRecommendationsByProductIds(List<Integer> productIds) {
+
+        URI url = UriComponentsBuilder.fromUriString(RECOMMENDATION_SERVICE_URL + "/recommendation")
+            .queryParam("productIds", productIds)
+            .build()
+            .toUri();
+        LOG.debug("Will call the getRecommendationsByProductIds API on URL: {}", url);
+
+        return metrics.record("getRecommendationsByProductIds", true, limiter.limit("recommendation", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(RecommendationResponse.class)))
             .log(LOG.getName(), Level.FINE)
             .onErrorResume(error -> empty());
     }
@@ -200,17 +351,81 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
         }).subscribeOn(publishEventScheduler);
     }
 
+    /**
+     * 같은 product 의 review 들을 이벤트 하나(BULK_CREATE)로 발행한다. 소비자는 한 번의 bulk write 로 저장한다.
+     */
     @Override
+    public Flux<ReviewResponse> postReviews(List<ReviewRequest> requests) {
+
+        LOG.info("5. Post {} review requests for productId: {}", requests.size(), requests.get(0).productId());
+
+        return Mono.fromCallable(() -> {
+            sendMessage("reviews-out-0", Event.createBulk(
+                requests.get(0).productId(),
+                requests));
+            return requests.stream().map(ReviewRequest::toResponse).toList();
+        }).subscribeOn(publishEventScheduler)
+            .flatMapIterable(list -> list);
+    }
+
+    /**
+     * 오류와 서킷 브레이커 처리는 getRecommendations 와 같다.
+     */
+    @Override
+    @DownstreamCall(value = "getReviews", partialOnError = true)
+    @TimeLimiter(name = "review")
+    @CircuitBreaker(name = "review", fallbackMethod = "getReviewsCircuitOpen")
     public Flux<ReviewResponse> getReviews(int productId) {
 
-        String url = REVIEW_SERVICE_URL + "/review?productId=" + productId;
+        return coalescer.coalesce("review", productId, () -> hedging.hedge("review",
+                () -> reviewFlux(productId).collectList()))
+            .flatMapIterable(list -> list);
+    }
 
-        LOG.debug("Will call the getReviews API on URL: {}", url);
+    private Flux<ReviewResponse> getReviewsCircuitOpen(int productId, CallNotPermittedException ex) {
+        return circuitOpen("getReviews", productId, ex);
+    }
+
+    private Flux<ReviewResponse> getReviewsCircuitOpen(int productId, List<String> fields, CallNotPermittedException ex) {
+        return circuitOpen("getReviews", productId, ex);
+    }
 
-        // Return an empty result if something goes wrong to make it possible for the composite service to return partial responses
-        return webClient.get().uri(url)
-            .retrieve()
-            .bodyToFlux(ReviewResponse.class)
+    private Flux<ReviewResponse> getReviewsCircuitOpen(int productId, Integer after, int limit, CallNotPermittedException ex) {
+        return circuitOpen("getReviews", productId, ex);
+    }
+
+    /**
+     * after 다음의 review 를 최대 limit 개 조회한다. 요청 합치기와 hedging 은 첫 페이지(getReviews(productId))에만 적용한다.
+     */
+    @Override
+    @DownstreamCall(value = "getReviews", partialOnError = true)
+    @TimeLimiter(name = "review")
+    @CircuitBreaker(name = "review", fallbackMethod = "getReviewsCircuitOpen")
+    public Flux<ReviewResponse> getReviews(int productId, Integer after, int limit) {
+        return reviewFlux(productId, after, limit);
+    }
+
+    /**
+     * 요청을 합치지 않고 review 를 페이지 단위로 마지막 페이지까지 조회해 내보낸다. 스트리밍 응답에서 사용한다.
+     * 첫 페이지만 담는 getReviews(productId) 와 달리 review 가 많아도 잘리지 않는다.
+     */
+    public Flux<ReviewResponse> streamReviews(int productId) {
+        return reviewPages(productId)
+            .onErrorResume(error -> empty());
+    }
+
+    @Override
+    public Flux<ReviewResponse> getReviewsByProductIds(List<Integer> productIds) {
+
+        URI url = UriComponentsBuilder.fromUriString(REVIEW_SERVICE_URL + "/review")
+            .queryParam("productIds", productIds)
+            .build()
+            .toUri();
+        LOG.debug("Will call the getReviewsByProductIds API on URL: {}", url);
+
+        return metrics.record("getReviewsByProductIds", true, limiter.limit("review", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(ReviewResponse.class)))
             .log(LOG.getName(), Level.FINE)
             .onErrorResume(error -> empty());
     }
@@ -223,18 +438,119 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
             .then();
     }
 
+    /**
+     * 지정한 필드만 조회한다 (projection). 응답이 요청마다 다르므로 요청 합치기와 hedging 은 적용하지 않는다.
+     * 서킷 브레이커는 getRecommendations(productId) 와 함께 사용한다.
+     */
+    @Override
+    @DownstreamCall(value = "getRecommendations", partialOnError = true)
+    @TimeLimiter(name = "recommendation")
+    @CircuitBreaker(name = "recommendation", fallbackMethod = "getRecommendationsCircuitOpen")
+    public Flux<RecommendationResponse> getRecommendations(int productId, List<String> fields) {
+
+        URI url = UriComponentsBuilder.fromUriString(RECOMMENDATION_SERVICE_URL + "/recommendation")
+            .queryParam("productId", productId)
+            .queryParam("fields", fields)
+            .build()
+            .toUri();
+
+        LOG.debug("Will call the getRecommendations API on URL: {}", url);
+
+        return metrics.record("getRecommendations", true, limiter.limit("recommendation", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(RecommendationResponse.class)))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    private Flux<RecommendationResponse> recommendationFlux(int productId) {
+
+        String url = RECOMMENDATION_SERVICE_URL + "/recommendation?productId=" + productId;
+
+        LOG.debug("Will call the getRecommendations API on URL: {}", url);
+
+        return metrics.record("getRecommendations", true, limiter.limit("recommendation", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(RecommendationResponse.class)))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    /**
+     * 지정한 필드만 조회한다 (projection). 응답이 요청마다 다르므로 요청 합치기와 hedging 은 적용하지 않는다.
+     * 서킷 브레이커는 getReviews(productId) 와 함께 사용한다.
+     */
+    @Override
+    @DownstreamCall(value = "getReviews", partialOnError = true)
+    @TimeLimiter(name = "review")
+    @CircuitBreaker(name = "review", fallbackMethod = "getReviewsCircuitOpen")
+    public Flux<ReviewResponse> getReviews(int productId, List<String> fields) {
+
+        URI url = UriComponentsBuilder.fromUriString(REVIEW_SERVICE_URL + "/review")
+            .queryParam("productId", productId)
+            .queryParam("fields", fields)
+            .build()
+            .toUri();
+
+        LOG.debug("Will call the getReviews API on URL: {}", url);
+
+        return metrics.record("getReviews", true, limiter.limit("review", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(ReviewResponse.class)))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    /**
+     * review 가 아주 많은 product 도 있으므로 첫 페이지(reviewPageSize 개)만 요청한다.
+     */
+    private Flux<ReviewResponse> reviewFlux(int productId) {
+        return reviewFlux(productId, null, reviewPageSize);
+    }
+
+    /**
+     * 한 번에 한 페이지씩 조회하므로 review 전체를 메모리에 모으지 않는다.
+     */
+    private Flux<ReviewResponse> reviewPages(int productId) {
+        return reviewFlux(productId).collectList()
+            .expand(page -> page.size() < reviewPageSize
+                ? Mono.empty()
+                : reviewFlux(productId, page.get(page.size() - 1).reviewId(), reviewPageSize).collectList())
+            .concatMapIterable(page -> page, 1);
+    }
+
+    private Flux<ReviewResponse> reviewFlux(int productId, Integer after, int limit) {
+
+        URI url = UriComponentsBuilder.fromUriString(REVIEW_SERVICE_URL + "/review")
+            .queryParam("productId", productId)
+            .queryParamIfPresent("after", Optional.ofNullable(after))
+            .queryParam("limit", limit)
+            .build()
+            .toUri();
+
+        LOG.debug("Will call the getReviews API on URL: {}", url);
+
+        return metrics.record("getReviews", true, limiter.limit("review", webClient.get().uri(url)
+                .retrieve()
+                .bodyToFlux(ReviewResponse.class)))
+            .log(LOG.getName(), Level.FINE);
+    }
+
+    /**
+     * 서킷 브레이커가 열려 호출하지 않은 경우 예외를 그대로 전달한다. DownstreamCall 이 circuit-open 으로 기록한다.
+     */
+    private <T> Flux<T> circuitOpen(String operation, int productId, CallNotPermittedException ex) {
+        LOG.debug("Skips {} for productId = {}: {}", operation, productId, ex.getMessage());
+        return Flux.error(ex);
+    }
+
     private <K, T> void sendMessage(String bindingName, Event<K, T> event) {
-        LOG.debug("Sending a {} message to {}", event.eventType(), bindingName);
-        Message<Event<K, T>> message = MessageBuilder.withPayload(event)
-            .setHeader("partitionKey", event.key())
-            .build();
-        streamBridge.send(bindingName, message);
+        LOG.debug("Appending a {} message for {} to the outbox", event.eventType(), bindingName);
+        metrics.recordSend(List.of(bindingName), () -> outbox.append(List.of(new OutboxEvent(bindingName, event))));
     }
 
     private String getErrorMessage(WebClientResponseException ex) {
         try {
-            return mapper.readValue(ex.getResponseBodyAsString(), HttpErrorInfo.class).message();
-        } catch (IOException e) {
+            // 오류 응답도 Smile 일 수 있으므로 응답의 Content-Type 에 맞는 코덱으로 읽는다.
+            return ex.getResponseBodyAs(HttpErrorInfo.class).message();
+        } catch (RuntimeException e) {
             return ex.getMessage();
         }
     }
@@ -251,6 +567,9 @@ public class ProductCompositeIntegration implements ProductApi, RecommendationAp
             return new NotFoundException(getErrorMessage(wcre));
         } else if (statusCode.equals(HttpStatus.UNPROCESSABLE_ENTITY)) {
             return new InvalidInputException(getErrorMessage(wcre));
+        } else if (statusCode.equals(HttpStatus.GATEWAY_TIMEOUT)) {
+            // core 서비스가 요청의 deadline 이 지나 처리를 중단한 경우
+            return new DeadlineExceededException(getErrorMessage(wcre));
         }
         LOG.warn("Got an unexpected HTTP error: {}, will rethrow it", wcre.getStatusCode());
         LOG.warn("Error body: {}", wcre.getResponseBodyAsString());
@@ -0,0 +1,46 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeoutException;
+import msa.lime1st.composite.product.infrastructure.client.AdaptiveConcurrencyLimiter;
+import msa.lime1st.composite.product.infrastructure.client.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsWhenLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 1, 10, 2.0, 0.9, registry);
+        Sinks.One<String> first = Sinks.one();
+
+        limiter.limit("review", first.asMono()).subscribe();
+
+        assertThrows(ConcurrencyLimitExceededException.class,
+            () -> limiter.limit("review", Mono.just("second")).block());
+        assertEquals(1.0, registry.get("composite.concurrency.inflight").gauge().value());
+        assertEquals(1.0, registry.get("composite.concurrency.rejected").counter().count());
+
+        first.tryEmitValue("first");
+        assertEquals(0.0, registry.get("composite.concurrency.inflight").gauge().value());
+        assertEquals("third", limiter.limit("review", Mono.just("third")).block());
+    }
+
+    @Test
+    void decreasesLimitOnServerErrors() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 20, 5, 200, 2.0, 0.5, registry);
+
+        // block() 은 checked 예외를 RuntimeException 으로 감싸서 던진다.
+        assertThrows(RuntimeException.class,
+            () -> limiter.limit("product", Mono.error(new TimeoutException())).block());
+
+        assertTrue(limiter.currentLimit("product") < 20);
+    }
+}
@@ -1,5 +1,8 @@
 package msa.lime1st.composite;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -7,16 +10,22 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 import static org.springframework.http.HttpStatus.OK;
 
 import java.util.Collections;
+import java.util.List;
+import msa.lime1st.api.composite.product.ProductAggregatePart;
+import msa.lime1st.api.composite.product.ProductAggregatePart.Type;
 import msa.lime1st.api.core.product.ProductResponse;
 import msa.lime1st.api.core.recommendation.RecommendationResponse;
 import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.composite.product.infrastructure.persistence.ProductFallbackStore;
 import msa.lime1st.composite.product.presentation.ProductCompositeIntegration;
 import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.util.exception.NotFoundException;
+import msa.lime1st.util.exception.ServiceUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -27,13 +36,19 @@ import reactor.core.publisher.Mono;
 @SpringBootTest(
     webEnvironment = RANDOM_PORT,
     classes = {TestSecurityConfig.class},
-    properties = {"spring.main.allow-bean-definition-overriding=true"}
+    properties = {
+        "spring.main.allow-bean-definition-overriding=true",
+        // review 첫 페이지가 가득 찬 경우를 확인하기 위해 페이지 크기를 1 로 줄인다.
+        "app.review.pageSize=1"
+    }
 )
 class CompositeApplicationTests {
 
     private static final int PRODUCT_ID_OK = 1;
     private static final int PRODUCT_ID_NOT_FOUND = 2;
     private static final int PRODUCT_ID_INVALID = 3;
+    private static final int PRODUCT_ID_PARTIAL = 4;
+    private static final int PRODUCT_ID_FALLBACK = 5;
 
     @Autowired
     private WebTestClient client;
@@ -63,6 +78,41 @@ class CompositeApplicationTests {
                 "mock address")
             )));
 
+        when(compositeIntegration.getReviews(PRODUCT_ID_OK, List.of("reviewId")))
+            .thenReturn(Flux.just(ReviewResponse.of(
+                PRODUCT_ID_OK,
+                1, null, null, null,
+                "mock address")
+            ));
+
+        when(compositeIntegration.streamRecommendations(PRODUCT_ID_OK))
+            .thenReturn(Flux.just(RecommendationResponse.of(
+                PRODUCT_ID_OK,
+                1, "author", 1, "content",
+                "mock address")
+            ));
+        when(compositeIntegration.streamReviews(PRODUCT_ID_OK))
+            .thenReturn(Flux.just(ReviewResponse.of(
+                PRODUCT_ID_OK,
+                1, "author", "subject", "content",
+                "mock address")
+            ));
+
+        when(compositeIntegration.getProducts(List.of(PRODUCT_ID_OK, PRODUCT_ID_NOT_FOUND)))
+            .thenReturn(Flux.just(ProductResponse.of(
+                PRODUCT_ID_OK,
+                "name", 1,
+                "mock-address"
+            )));
+        when(compositeIntegration.getRecommendationsByProductIds(List.of(PRODUCT_ID_OK, PRODUCT_ID_NOT_FOUND)))
+            .thenReturn(Flux.just(RecommendationResponse.of(
+                PRODUCT_ID_OK,
+                1, "author", 1, "content",
+                "mock address")
+            ));
+        when(compositeIntegration.getReviewsByProductIds(List.of(PRODUCT_ID_OK, PRODUCT_ID_NOT_FOUND)))
+            .thenReturn(Flux.empty());
+
         when(compositeIntegration.getProduct(eq(PRODUCT_ID_NOT_FOUND), anyInt(), anyInt()))
             .thenThrow(new NotFoundException("NOT FOUND: " + PRODUCT_ID_NOT_FOUND));
 
@@ -80,7 +130,63 @@ class CompositeApplicationTests {
         getAndVerifyProduct(PRODUCT_ID_OK, OK)
             .jsonPath("$.productId").isEqualTo(PRODUCT_ID_OK)
             .jsonPath("$.recommendations.length()").isEqualTo(1)
-            .jsonPath("$.reviews.length()").isEqualTo(1);
+            .jsonPath("$.reviews.length()").isEqualTo(1)
+            .jsonPath("$.nextReviewAfter").isEqualTo(1);
+    }
+
+    @Test
+    void getProductNotModified() {
+
+        String etag = client.get()
+            .uri("/product-composite/" + PRODUCT_ID_OK)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/"));
+
+        client.get()
+            .uri("/product-composite/" + PRODUCT_ID_OK)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+            .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    void getProductWithFields() {
+
+        client.get()
+            .uri("/product-composite/" + PRODUCT_ID_OK + "?fields=name,reviews.reviewId")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectBody()
+            .jsonPath("$.productId").isEqualTo(PRODUCT_ID_OK)
+            .jsonPath("$.reviews.length()").isEqualTo(1)
+            .jsonPath("$.reviews[0].reviewId").isEqualTo(1)
+            .jsonPath("$.reviews[0].content").doesNotExist()
+            .jsonPath("$.recommendations").doesNotExist()
+            .jsonPath("$.serviceAddresses").doesNotExist();
+    }
+
+    @Test
+    void getProductWithInvalidField() {
+
+        client.get()
+            .uri("/product-composite/" + PRODUCT_ID_OK + "?fields=reviews.unknown")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Invalid field: reviews.unknown");
     }
 
     @Test
@@ -99,6 +205,105 @@ class CompositeApplicationTests {
             .jsonPath("$.message").isEqualTo("INVALID: " + PRODUCT_ID_INVALID);
     }
 
+    @Test
+    void getProductStream() {
+
+        List<ProductAggregatePart> parts = client.get()
+            .uri("/product-composite/" + PRODUCT_ID_OK)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(ProductAggregatePart.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertEquals(4, parts.size());
+        assertEquals(Type.PRODUCT, parts.get(0).type());
+        assertEquals(Type.SERVICE_ADDRESSES, parts.get(3).type());
+        assertEquals("mock-address", parts.get(3).serviceAddresses().pro());
+    }
+
+    @Test
+    void getPartialProduct() {
+
+        when(compositeIntegration.getProduct(eq(PRODUCT_ID_PARTIAL), anyInt(), anyInt()))
+            .thenReturn(Mono.just(ProductResponse.of(PRODUCT_ID_PARTIAL, "name", 1, "mock-address")));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_PARTIAL))
+            .thenReturn(Flux.just(RecommendationResponse.of(
+                PRODUCT_ID_PARTIAL, 1, "author", 1, "content", "mock address")));
+        when(compositeIntegration.getReviews(PRODUCT_ID_PARTIAL))
+            .thenReturn(Flux.error(new ServiceUnavailableException("review is down")));
+
+        // review 조회가 실패해도 나머지로 응답하고, 빠진 항목을 표시한다. 이 응답에는 ETag 를 붙이지 않는다.
+        client.get()
+            .uri("/product-composite/" + PRODUCT_ID_PARTIAL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectHeader().doesNotExist(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.recommendations.length()").isEqualTo(1)
+            .jsonPath("$.reviews.length()").isEqualTo(0)
+            .jsonPath("$.missing.length()").isEqualTo(1)
+            .jsonPath("$.missing[0]").isEqualTo("reviews");
+
+        // 일부가 빠진 응답은 캐시하지 않으므로 review 서비스가 복구되면 바로 전체 응답을 받는다.
+        when(compositeIntegration.getReviews(PRODUCT_ID_PARTIAL))
+            .thenReturn(Flux.just(ReviewResponse.of(
+                PRODUCT_ID_PARTIAL, 1, "author", "subject", "content", "mock address")));
+
+        getAndVerifyProduct(PRODUCT_ID_PARTIAL, OK)
+            .jsonPath("$.reviews.length()").isEqualTo(1)
+            .jsonPath("$.missing").doesNotExist();
+    }
+
+    @Test
+    void getFallbackProduct() {
+
+        when(compositeIntegration.getProduct(eq(PRODUCT_ID_FALLBACK), anyInt(), anyInt()))
+            .thenReturn(Mono.just(ProductResponse.of(
+                PRODUCT_ID_FALLBACK, "stale", 1, ProductFallbackStore.FALLBACK_VERSION, "composite-address")));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_FALLBACK)).thenReturn(Flux.empty());
+        when(compositeIntegration.getReviews(PRODUCT_ID_FALLBACK)).thenReturn(Flux.empty());
+
+        // fallback 저장소의 product 는 오래되었을 수 있으므로 missing 으로 표시하고 ETag 를 붙이지 않는다.
+        client.get()
+            .uri("/product-composite/" + PRODUCT_ID_FALLBACK)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectHeader().doesNotExist(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.name").isEqualTo("stale")
+            .jsonPath("$.missing.length()").isEqualTo(1)
+            .jsonPath("$.missing[0]").isEqualTo("product");
+
+        // 캐시하지 않으므로 product 서비스가 복구되면 바로 최신 product 를 받는다.
+        when(compositeIntegration.getProduct(eq(PRODUCT_ID_FALLBACK), anyInt(), anyInt()))
+            .thenReturn(Mono.just(ProductResponse.of(PRODUCT_ID_FALLBACK, "fresh", 1, 1, "mock-address")));
+
+        getAndVerifyProduct(PRODUCT_ID_FALLBACK, OK)
+            .jsonPath("$.name").isEqualTo("fresh")
+            .jsonPath("$.missing").doesNotExist();
+    }
+
+    @Test
+    void getProductsByIds() {
+
+        client.get()
+            .uri("/product-composite?ids=" + PRODUCT_ID_OK + "," + PRODUCT_ID_NOT_FOUND)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$[0].productId").isEqualTo(PRODUCT_ID_OK)
+            .jsonPath("$[0].recommendations.length()").isEqualTo(1)
+            .jsonPath("$[0].reviews.length()").isEqualTo(0);
+    }
+
     private WebTestClient.BodyContentSpec getAndVerifyProduct(int productId, HttpStatus expectedStatus) {
         return client.get()
             .uri("/product-composite/" + productId)
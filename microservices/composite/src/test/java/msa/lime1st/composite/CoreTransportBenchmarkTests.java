@@ -0,0 +1,162 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import msa.lime1st.api.core.CoreMediaType;
+import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.util.benchmark.Benchmark;
+import msa.lime1st.util.benchmark.BenchmarkReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * composite -> core 전송 방식 비교. core 서비스 대신 같은 프로세스에서 review 목록을 반환하는 서버를 띄운다.
+ * <p>
+ * rest      - HTTP/1.1, 목록을 JSON 배열로 직렬화 (기존 방식)
+ * smile     - HTTP/1.1, 목록을 Smile 배열로 직렬화 (app.http-client.wireFormat=smile)
+ * streaming - HTTP/2(h2c) 연결 하나에서 multiplexing, 항목을 stream+x-jackson-smile 로 하나씩 전송
+ *             (app.http-client.transport=streaming)
+ * <p>
+ * BENCHMARK=true ./gradlew :microservices:composite:test --tests '*CoreTransportBenchmarkTests' -i
+ */
+class CoreTransportBenchmarkTests {
+
+    private static final MediaType SMILE = MediaType.parseMediaType(CoreMediaType.APPLICATION_SMILE_VALUE);
+    private static final MediaType STREAM_SMILE = MediaType.parseMediaType(CoreMediaType.APPLICATION_STREAM_SMILE_VALUE);
+
+    private static final int REVIEWS_PER_RESPONSE = 20;
+    private static final int CONCURRENCY = 64;
+    private static final int WARMUP_REQUESTS = 10_000;
+    private static final int MEASURED_REQUESTS = 50_000;
+
+    private DisposableServer server;
+
+    @BeforeEach
+    void startServer() {
+        RouterFunction<ServerResponse> route = RouterFunctions.route(GET("/review"), request -> {
+            int count = request.queryParam("count").map(Integer::parseInt).orElse(REVIEWS_PER_RESPONSE);
+            // core 서비스의 content negotiation 대신 Accept 의 첫 번째 형식으로 응답한다.
+            MediaType contentType = request.headers().accept().stream().findFirst().orElse(MediaType.APPLICATION_JSON);
+            return ServerResponse.ok()
+                .contentType(contentType)
+                .body(Flux.range(1, count).map(CoreTransportBenchmarkTests::review), ReviewResponse.class);
+        });
+
+        server = HttpServer.create()
+            .port(0)
+            .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+            .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(route)))
+            .bindNow();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void streamsSmileOverH2c() {
+        ConnectionProvider provider = ConnectionProvider.create("streaming-test", 1);
+        AtomicReference<MediaType> contentType = new AtomicReference<>();
+        try {
+            WebClient client = client(provider, HttpProtocol.H2C, STREAM_SMILE, SMILE, MediaType.APPLICATION_JSON);
+
+            List<ReviewResponse> reviews = client.get()
+                .uri("/review?count=100")
+                .exchangeToFlux(response -> {
+                    contentType.set(response.headers().contentType().orElse(null));
+                    return response.bodyToFlux(ReviewResponse.class);
+                })
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+            assertEquals(STREAM_SMILE, contentType.get());
+            assertEquals(Flux.range(1, 100).map(CoreTransportBenchmarkTests::review).collectList().block(), reviews);
+        } finally {
+            provider.disposeLater().block();
+        }
+    }
+
+    @Benchmark
+    void benchmark() {
+        try (BenchmarkReport report = BenchmarkReport.of("core-transport", "%-10s %12s %10s %10s %10s",
+            "transport", "requests/s", "p50 us", "p99 us", "max us")) {
+            measure(report, "rest", HttpProtocol.HTTP11, MediaType.APPLICATION_JSON);
+            measure(report, "smile", HttpProtocol.HTTP11, SMILE);
+            measure(report, "streaming", HttpProtocol.H2C, STREAM_SMILE);
+        }
+    }
+
+    private void measure(BenchmarkReport report, String name, HttpProtocol protocol, MediaType accept) {
+        // HTTP/1.1 은 동시 요청 수만큼 연결이 필요하고, HTTP/2 는 연결 하나에서 stream 으로 나눠 보낸다.
+        int connections = protocol == HttpProtocol.H2C ? 1 : CONCURRENCY;
+        ConnectionProvider provider = ConnectionProvider.create("benchmark-" + name, connections);
+        try {
+            WebClient client = client(provider, protocol, accept);
+            run(client, WARMUP_REQUESTS);
+
+            long start = System.nanoTime();
+            long[] latencies = run(client, MEASURED_REQUESTS);
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            report.row(name,
+                MEASURED_REQUESTS * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[(int) (latencies.length * 0.99)]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]));
+        } finally {
+            provider.disposeLater().block();
+        }
+    }
+
+    private static long[] run(WebClient client, int requests) {
+        long[] latencies = new long[requests];
+        Flux.range(0, requests)
+            .flatMap(i -> {
+                long start = System.nanoTime();
+                return client.get()
+                    .uri("/review")
+                    .retrieve()
+                    .bodyToFlux(ReviewResponse.class)
+                    .then()
+                    .doOnSuccess(ignored -> latencies[i] = System.nanoTime() - start);
+            }, CONCURRENCY)
+            .blockLast(Duration.ofMinutes(5));
+        return latencies;
+    }
+
+    private WebClient client(ConnectionProvider provider, HttpProtocol protocol, MediaType... accept) {
+        HttpClient httpClient = HttpClient.create(provider).protocol(protocol);
+        return WebClient.builder()
+            .baseUrl("http://localhost:" + server.port())
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .defaultHeaders(headers -> headers.setAccept(List.of(accept)))
+            .build();
+    }
+
+    private static ReviewResponse review(int reviewId) {
+        return ReviewResponse.of(1, reviewId, "author " + reviewId, "subject " + reviewId,
+            "review content that is a bit longer than the subject " + reviewId, "review-6a1e/10.0.0.14:8080");
+    }
+}
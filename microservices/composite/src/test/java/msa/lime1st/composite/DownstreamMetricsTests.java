@@ -0,0 +1,95 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import msa.lime1st.composite.product.infrastructure.client.DownstreamMetrics;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DownstreamMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DownstreamMetrics metrics = new DownstreamMetrics(registry);
+
+    @Test
+    void recordsSuccess() {
+        StepVerifier.create(metrics.record("getProduct", false, Mono.just(1)))
+            .expectNext(1)
+            .verifyComplete();
+
+        assertEquals(1, count("getProduct", "success"));
+    }
+
+    @Test
+    void classifiesErrors() {
+        StepVerifier.create(metrics.record("getProduct", false, Mono.error(new TimeoutException())))
+            .verifyError(TimeoutException.class);
+        StepVerifier.create(metrics.record("getProduct", false,
+                Mono.error(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("product")))))
+            .verifyError(CallNotPermittedException.class);
+        StepVerifier.create(metrics.record("getProduct", false, Mono.error(new IllegalStateException())))
+            .verifyError(IllegalStateException.class);
+        StepVerifier.create(metrics.record("getReviews", true, Flux.error(new IllegalStateException())))
+            .verifyError(IllegalStateException.class);
+
+        assertEquals(1, count("getProduct", "timeout"));
+        assertEquals(1, count("getProduct", "circuit-open"));
+        assertEquals(1, count("getProduct", "error"));
+        assertEquals(1, count("getReviews", "empty"));
+    }
+
+    @Test
+    void recordsCancelOnce() {
+        StepVerifier.create(metrics.record("getRecommendations", true, Flux.just(1, 2, 3)))
+            .expectNext(1)
+            .thenCancel()
+            .verify();
+
+        assertEquals(1, count("getRecommendations", "cancelled"));
+    }
+
+    @Test
+    void recordsOneOutcomePerCall() {
+        // 안쪽 시도가 실패하고 재시도한 뒤 fallback 으로 끝나도 호출 하나에 outcome 하나만 남는다.
+        Mono<Integer> attempt = metrics.record("getProduct", false, Mono.error(new IllegalStateException()));
+        Mono<Integer> call = attempt
+            .retry(1)
+            .onErrorResume(error -> Mono.deferContextual(context -> {
+                metrics.markOutcome(context, "fallback");
+                return Mono.just(1);
+            }));
+
+        StepVerifier.create(metrics.record("getProduct", false, call))
+            .expectNext(1)
+            .verifyComplete();
+
+        assertEquals(1, count("getProduct", "fallback"));
+        assertEquals(0, registry.find("composite.downstream.requests").tag("outcome", "error").timers().size());
+    }
+
+    @Test
+    void recordsSendPerBinding() {
+        metrics.recordSend(List.of("products-out-0", "reviews-out-0"), () -> { });
+
+        assertEquals(1, registry.get("composite.downstream.messages")
+            .tag("binding", "products-out-0").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("composite.downstream.messages")
+            .tag("binding", "reviews-out-0").tag("outcome", "success").timer().count());
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("composite.downstream.requests")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .tag("instance", "none")
+            .timer()
+            .count();
+    }
+}
@@ -0,0 +1,100 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import msa.lime1st.composite.product.infrastructure.client.HedgedRequestExecutor;
+import msa.lime1st.util.loadbalancer.ChosenInstances;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class HedgedRequestExecutorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlow() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(true, 0.95, 10, 50, 10, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.hedge("review", () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary")
+                : Mono.just("hedge"))
+            .block(Duration.ofSeconds(1));
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, registry.get("composite.hedging.wins").counter().count());
+    }
+
+    @Test
+    void hedgeSharesChosenInstancesWithPrimary() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(true, 0.95, 10, 50, 10, registry);
+        AtomicInteger calls = new AtomicInteger();
+        List<ChosenInstances> seen = new CopyOnWriteArrayList<>();
+
+        // load balancer 가 hedge 를 primary 와 다른 인스턴스로 보내도록 두 요청에 같은 ChosenInstances 를 전달한다.
+        executor.hedge("review", () -> {
+                boolean primary = calls.incrementAndGet() == 1;
+                return Mono.deferContextual(context -> {
+                    seen.add(ChosenInstances.from(context).orElseThrow());
+                    return primary ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary") : Mono.just("hedge");
+                });
+            })
+            .block(Duration.ofSeconds(1));
+
+        assertEquals(2, seen.size());
+        assertSame(seen.get(0), seen.get(1));
+    }
+
+    @Test
+    void noHedgeWhenDisabled() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(false, 0.95, 10, 50, 10, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.hedge("review", () -> {
+                calls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+            })
+            .block(Duration.ofSeconds(1));
+
+        assertEquals("primary", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void primaryErrorIsNotDelayedUntilTheHedge() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(true, 0.95, 10, 1000, 10, registry);
+
+        // 가상 시간을 진행하지 않으므로 hedge delay 를 기다리면 끝나지 않는다.
+        StepVerifier.withVirtualTime(() -> executor.hedge("review",
+                () -> Mono.<String>error(new IllegalStateException("primary failed"))))
+            .expectSubscription()
+            .expectErrorMessage("primary failed")
+            .verify(Duration.ofSeconds(1));
+        assertEquals(0.0, registry.get("composite.hedging.hedges").counter().count());
+    }
+
+    @Test
+    void delayFollowsObservedLatencyFromTheFirstResponse() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(true, 0.95, 10, 1000, 10, registry);
+        executor.hedge("review", () -> Mono.just("fast")).block(Duration.ofSeconds(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        // 첫 응답이 minDelay 보다 빨랐으므로 maxDelay 가 아닌 minDelay 가 지나면 hedge 를 보낸다.
+        StepVerifier.withVirtualTime(() -> executor.hedge("review", () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary")
+                : Mono.just("hedge")))
+            .expectSubscription()
+            .thenAwait(Duration.ofMillis(10))
+            .expectNext("hedge")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+}
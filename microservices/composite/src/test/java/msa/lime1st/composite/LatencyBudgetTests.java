@@ -0,0 +1,113 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import msa.lime1st.api.core.product.ProductResponse;
+import msa.lime1st.api.core.recommendation.RecommendationResponse;
+import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.composite.product.infrastructure.cache.ProductAggregateCache;
+import msa.lime1st.composite.product.presentation.ProductCompositeControllerImpl;
+import msa.lime1st.composite.product.presentation.ProductCompositeIntegration;
+import msa.lime1st.util.http.ApiUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class LatencyBudgetTests {
+
+    private static final int PRODUCT_ID = 1;
+    private static final long BUDGET_MILLIS = 200;
+
+    private final ApiUtil apiUtil = mock(ApiUtil.class);
+    private final ProductCompositeIntegration integration = mock(ProductCompositeIntegration.class);
+    private final ProductAggregateCache aggregateCache = new ProductAggregateCache(true, 100, 60, 0, new SimpleMeterRegistry());
+    private final AtomicBoolean reviewsCancelled = new AtomicBoolean();
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Mono.delay, delaySubscription 이 조립될 때 scheduler 를 정하므로 mock 을 만들기 전에 virtual time 으로 바꾼다.
+        scheduler = VirtualTimeScheduler.getOrSet();
+
+        when(apiUtil.getServiceAddress()).thenReturn("mock-address");
+        when(integration.getProduct(eq(PRODUCT_ID), anyInt(), anyInt()))
+            .thenReturn(Mono.just(ProductResponse.of(PRODUCT_ID, "name", 1, "mock-address")));
+        when(integration.getRecommendations(PRODUCT_ID))
+            .thenReturn(Flux.just(RecommendationResponse.of(
+                PRODUCT_ID, 1, "author", 1, "content", "mock address")));
+        // review 는 budget 보다 늦게 도착한다.
+        when(integration.getReviews(PRODUCT_ID))
+            .thenReturn(Flux.just(ReviewResponse.of(
+                    PRODUCT_ID, 1, "author", "subject", "content", "mock address"))
+                .delaySubscription(Duration.ofSeconds(1))
+                .doOnCancel(() -> reviewsCancelled.set(true)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void respondsWithinBudgetAndWarmsCacheWithLateResults() {
+        ProductCompositeControllerImpl controller = controller(true);
+
+        StepVerifier.create(controller.getProduct(PRODUCT_ID, 0, 0, null))
+            .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(BUDGET_MILLIS)))
+            .assertNext(response -> {
+                assertEquals(1, response.recommendations().size());
+                assertTrue(response.reviews().isEmpty());
+                assertEquals(List.of("reviews"), response.missing());
+            })
+            .verifyComplete();
+        assertNull(aggregateCache.get(PRODUCT_ID));
+
+        // 늦게 도착한 review 로 전체 응답이 캐시되므로 다음 요청은 core 서비스를 호출하지 않고 전체 응답을 받는다.
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        ProductAggregateCache.Entry cached = aggregateCache.get(PRODUCT_ID);
+        assertNotNull(cached);
+        assertEquals(1, cached.response().reviews().size());
+        assertNull(cached.response().missing());
+        assertFalse(reviewsCancelled.get());
+        verify(integration, times(1)).getReviews(PRODUCT_ID);
+    }
+
+    @Test
+    void cancelsLateCallsWithoutWarmCache() {
+        ProductCompositeControllerImpl controller = controller(false);
+
+        StepVerifier.create(controller.getProduct(PRODUCT_ID, 0, 0, null))
+            .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(BUDGET_MILLIS)))
+            .assertNext(response -> assertEquals(List.of("reviews"), response.missing()))
+            .verifyComplete();
+
+        // 늦은 결과를 쓸 곳이 없으므로 budget 이 지나면 review 호출을 취소한다.
+        assertTrue(reviewsCancelled.get());
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertNull(aggregateCache.get(PRODUCT_ID));
+    }
+
+    private ProductCompositeControllerImpl controller(boolean warmCache) {
+        return new ProductCompositeControllerImpl(apiUtil, integration, aggregateCache, true, BUDGET_MILLIS, warmCache, 100);
+    }
+}
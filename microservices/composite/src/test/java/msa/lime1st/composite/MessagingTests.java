@@ -16,6 +16,7 @@ import msa.lime1st.api.core.recommendation.RecommendationRequest;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.event.Event;
 import msa.lime1st.api.event.Event.Type;
+import msa.lime1st.composite.product.infrastructure.messaging.EventOutbox;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -50,8 +51,13 @@ public class MessagingTests {
     @Autowired
     private OutputDestination target;
 
+    @Autowired
+    private EventOutbox outbox;
+
     @BeforeEach
     void setUp() {
+        // 이전 테스트가 남긴 outbox 이벤트를 먼저 전달한 뒤 비운다.
+        outbox.relay();
         purgeMessages("products");
         purgeMessages("recommendations");
         purgeMessages("reviews");
@@ -112,25 +118,25 @@ public class MessagingTests {
         assertThat(productMessages.get(0),
             is(IsSameEvent.sameEventExceptCreatedAt(expectedProductEvent)));
 
-        // Assert one create recommendation event queued up
+        // Assert one bulk create recommendation event queued up
         assertEquals(1, recommendationMessages.size());
 
         RecommendationSummary rs = request.recommendations().get(0);
         Event<Integer, RecommendationRequest> expectedRecommendationEvent =
-            Event.create(Type.CREATE, request.productId(),
+            Event.createBulk(request.productId(), List.of(
                 RecommendationRequest.of(request.productId(), rs.recommendationId(), rs.author(),
-                    rs.rate(), rs.content(), null));
+                    rs.rate(), rs.content(), null)));
         assertThat(recommendationMessages.get(0),
             is(IsSameEvent.sameEventExceptCreatedAt(expectedRecommendationEvent)));
 
-        // Assert one create review event queued up
+        // Assert one bulk create review event queued up
         assertEquals(1, reviewMessages.size());
 
         ReviewSummary rev = request.reviews().get(0);
         Event<Integer, ReviewRequest> expectedReviewEvent =
-            Event.create(Type.CREATE, request.productId(),
+            Event.createBulk(request.productId(), List.of(
                 ReviewRequest.of(request.productId(), rev.reviewId(), rev.author(), rev.subject(),
-                    rev.content(), null));
+                    rev.content(), null)));
         assertThat(reviewMessages.get(0),
             is(IsSameEvent.sameEventExceptCreatedAt(expectedReviewEvent)));
     }
@@ -202,6 +208,9 @@ public class MessagingTests {
             .body(Mono.just(request), ProductAggregateRequest.class)
             .exchange()
             .expectStatus().isEqualTo(HttpStatus.ACCEPTED);
+
+        // 이벤트는 outbox 에 기록된 뒤 relay 가 비동기로 전달하므로, 검증 전에 직접 전달한다.
+        outbox.relay();
     }
 
     private void deleteAndVerifyProduct(int productId, HttpStatus expectedStatus) {
@@ -209,5 +218,7 @@ public class MessagingTests {
             .uri("/product-composite/" + productId)
             .exchange()
             .expectStatus().isEqualTo(expectedStatus);
+
+        outbox.relay();
     }
 }
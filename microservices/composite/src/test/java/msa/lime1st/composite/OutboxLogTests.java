@@ -0,0 +1,111 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import msa.lime1st.composite.product.infrastructure.persistence.OutboxLog;
+import msa.lime1st.composite.product.infrastructure.persistence.OutboxLog.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OutboxLogTests {
+
+    private static final long SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendAndRead() throws IOException {
+        OutboxLog log = new OutboxLog(tempDir.toString(), SEGMENT_BYTES);
+
+        log.append(List.of(bytes("a"), bytes("b")));
+        log.append(List.of(bytes("c")));
+
+        List<Entry> entries = log.read(0, 2);
+        assertEquals(2, entries.size());
+        assertArrayEquals(bytes("a"), entries.get(0).data());
+        assertArrayEquals(bytes("b"), entries.get(1).data());
+
+        List<Entry> rest = log.read(entries.get(1).endOffset(), 10);
+        assertEquals(1, rest.size());
+        assertArrayEquals(bytes("c"), rest.get(0).data());
+        log.destroy();
+    }
+
+    @Test
+    void resumesFromCommittedOffsetAfterReopen() throws IOException {
+        OutboxLog log = new OutboxLog(tempDir.toString(), SEGMENT_BYTES);
+        log.append(List.of(bytes("a"), bytes("b")));
+        log.commit(log.read(0, 1).get(0).endOffset());
+        log.destroy();
+
+        OutboxLog reopened = new OutboxLog(tempDir.toString(), SEGMENT_BYTES);
+        List<Entry> entries = reopened.read(reopened.committedOffset(), 10);
+        assertEquals(1, entries.size());
+        assertArrayEquals(bytes("b"), entries.get(0).data());
+        reopened.destroy();
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesDeliveredOnes() throws IOException {
+        // header(8) + data(9) = 17 bytes 이므로 segment 하나에 두 레코드가 들어간다.
+        OutboxLog log = new OutboxLog(tempDir.toString(), 34);
+        for (int i = 0; i < 5; i++) {
+            log.append(List.of(bytes("event-" + i + "..")));
+        }
+        assertEquals(3, log.segmentCount());
+
+        List<Entry> entries = log.read(0, 10);
+        assertEquals(5, entries.size());
+        assertArrayEquals(bytes("event-4.."), entries.get(4).data());
+
+        // 두 번째 segment 의 첫 레코드까지 전달되면 첫 segment 만 삭제된다.
+        long next = log.commit(entries.get(2).endOffset());
+        assertEquals(entries.get(2).endOffset(), next);
+        assertEquals(2, log.segmentCount());
+
+        // 모두 전달되면 마지막(쓰는 중인) segment 만 남는다.
+        log.commit(entries.get(4).endOffset());
+        assertEquals(1, log.segmentCount());
+        assertEquals(0, log.pendingBytes());
+        log.destroy();
+
+        OutboxLog reopened = new OutboxLog(tempDir.toString(), 34);
+        assertEquals(entries.get(4).endOffset(), reopened.committedOffset());
+        reopened.append(List.of(bytes("event-5..")));
+        List<Entry> rest = reopened.read(reopened.committedOffset(), 10);
+        assertEquals(1, rest.size());
+        assertArrayEquals(bytes("event-5.."), rest.get(0).data());
+        reopened.destroy();
+    }
+
+    @Test
+    void dropsIncompleteRecordOnReopen() throws IOException {
+        OutboxLog log = new OutboxLog(tempDir.toString(), SEGMENT_BYTES);
+        log.append(List.of(bytes("a")));
+        log.destroy();
+
+        // 기록 도중 종료된 것처럼 header 만 있는 레코드를 덧붙인다.
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("events-00000000000000000000.log"), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(8).putInt(0, 100).putInt(4, 0));
+        }
+
+        OutboxLog reopened = new OutboxLog(tempDir.toString(), SEGMENT_BYTES);
+        List<Entry> entries = reopened.read(0, 10);
+        assertEquals(1, entries.size());
+        assertArrayEquals(bytes("a"), entries.get(0).data());
+        reopened.destroy();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import msa.lime1st.api.composite.product.ProductAggregateResponse;
+import msa.lime1st.composite.product.infrastructure.cache.ProductAggregateCache;
+import org.junit.jupiter.api.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class ProductAggregateCacheTests {
+
+    @Test
+    void putGetAndInvalidate() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProductAggregateCache cache = new ProductAggregateCache(true, 100, 60, 0, registry);
+        ProductAggregateResponse response = response(1);
+
+        assertNull(cache.get(1));
+        cache.put(1, response, "\"1\"", cache.stamp(1));
+        ProductAggregateCache.Entry entry = cache.get(1);
+        assertSame(response, entry.response());
+        assertEquals("\"1\"", entry.etag());
+
+        cache.invalidate(1, ZonedDateTime.now());
+        assertNull(cache.get(1));
+
+        assertEquals(1.0, registry.get("composite.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("composite.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("composite.cache.evictions").tag("cause", "invalidated").counter().count());
+        assertEquals(1, registry.get("composite.cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void skipsPutWhenInvalidatedDuringLoad() {
+        ProductAggregateCache cache = new ProductAggregateCache(true, 100, 60, 0, new SimpleMeterRegistry());
+
+        long stamp = cache.stamp(1);
+        cache.invalidate(1, ZonedDateTime.now());
+        cache.put(1, response(1), "\"1\"", stamp);
+
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void invalidatesAgainAfterCoreAppliedTheEvent() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.getOrSet();
+        try {
+            ProductAggregateCache cache = new ProductAggregateCache(true, 100, 60, 2000, new SimpleMeterRegistry());
+            cache.invalidate(1, ZonedDateTime.now());
+
+            // 이벤트를 받은 직후 core 서비스가 아직 적용하지 않은 데이터를 읽어 캐시했다.
+            cache.put(1, response(1), "\"stale\"", cache.stamp(1));
+            assertNotNull(cache.get(1));
+
+            scheduler.advanceTimeBy(Duration.ofMillis(2000));
+            assertNull(cache.get(1));
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        ProductAggregateCache cache = new ProductAggregateCache(true, 100, 0, 0, new SimpleMeterRegistry());
+
+        cache.put(1, response(1), "\"1\"", cache.stamp(1));
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        ProductAggregateCache cache = new ProductAggregateCache(true, 160, 60, 0, new SimpleMeterRegistry());
+
+        for (int productId = 1; productId <= 1000; productId++) {
+            cache.put(productId, response(productId), "\"" + productId + "\"", cache.stamp(productId));
+        }
+
+        assertTrue(cache.size() <= 160);
+        assertNotNull(cache.get(1000));
+    }
+
+    private static ProductAggregateResponse response(int productId) {
+        return ProductAggregateResponse.of(productId, "name " + productId, 1, List.of(), List.of(), null);
+    }
+}
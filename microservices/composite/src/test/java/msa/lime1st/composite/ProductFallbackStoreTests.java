@@ -0,0 +1,70 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
+import msa.lime1st.api.core.product.ProductResponse;
+import msa.lime1st.composite.product.infrastructure.persistence.ProductFallbackStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProductFallbackStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void putAndGet() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProductFallbackStore store = new ProductFallbackStore(file(), 16, registry);
+
+        store.put(1, "name", 1);
+        ProductResponse response = store.get(1, "sa").orElseThrow();
+
+        assertEquals(1, response.productId());
+        assertEquals("name", response.name());
+        assertEquals(1, response.weight());
+        assertEquals("sa", response.serviceAddress());
+        assertTrue(ProductFallbackStore.isFallback(response));
+        assertFalse(store.get(2, "sa").isPresent());
+
+        assertEquals(1.0, registry.get("composite.fallback.lookups").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("composite.fallback.lookups").tag("result", "miss").counter().count());
+        store.destroy();
+    }
+
+    @Test
+    void survivesReopen() throws IOException {
+        ProductFallbackStore store = new ProductFallbackStore(file(), 16, new SimpleMeterRegistry());
+        store.put(1, "name", 1);
+        store.put(2, "name 2", 2);
+        store.remove(2);
+        store.destroy();
+
+        ProductFallbackStore reopened = new ProductFallbackStore(file(), 16, new SimpleMeterRegistry());
+        assertTrue(reopened.get(1, "sa").isPresent());
+        assertFalse(reopened.get(2, "sa").isPresent());
+        reopened.destroy();
+    }
+
+    @Test
+    void evictsWhenFull() throws IOException {
+        ProductFallbackStore store = new ProductFallbackStore(file(), 16, new SimpleMeterRegistry());
+
+        for (int productId = 1; productId <= 100; productId++) {
+            store.put(productId, "name " + productId, productId);
+        }
+
+        ProductResponse response = store.get(100, "sa").orElseThrow();
+        assertEquals("name 100", response.name());
+        store.destroy();
+    }
+
+    private String file() {
+        return tempDir.resolve("fallback.dat").toString();
+    }
+}
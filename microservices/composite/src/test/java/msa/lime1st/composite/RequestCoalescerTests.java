@@ -0,0 +1,127 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import msa.lime1st.composite.product.infrastructure.client.DownstreamMetrics;
+import msa.lime1st.composite.product.infrastructure.client.RequestCoalescer;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RequestCoalescerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DownstreamMetrics metrics = new DownstreamMetrics(registry);
+    private final RequestCoalescer coalescer = new RequestCoalescer(registry, metrics);
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> downstream = Sinks.one();
+
+        Mono<String> first = coalescer.coalesce("product", 1, () -> {
+            calls.incrementAndGet();
+            return downstream.asMono();
+        });
+        Mono<String> second = coalescer.coalesce("product", 1, () -> {
+            calls.incrementAndGet();
+            return downstream.asMono();
+        });
+
+        List<String> results = new ArrayList<>();
+        first.subscribe(results::add);
+        second.subscribe(results::add);
+        downstream.tryEmitValue("result");
+
+        assertEquals(2, results.size());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, registry.get("composite.coalescing.calls").tag("result", "joined").counter().count());
+    }
+
+    @Test
+    void recordsJoinedCallsApartFromTheLeader() {
+        Sinks.One<String> downstream = Sinks.one();
+
+        metrics.record("getProduct", false, coalescer.coalesce("product", 1, downstream::asMono)).subscribe();
+        metrics.record("getProduct", false, coalescer.coalesce("product", 1, downstream::asMono)).subscribe();
+        downstream.tryEmitValue("result");
+
+        // 요청을 보낸 leader 만 인스턴스별 타이머에 기록하고, 합류한 요청은 coalesced 타이머에 기록한다.
+        assertEquals(1, registry.get("composite.downstream.requests").tag("operation", "getProduct").timer().count());
+        assertEquals(1, registry.get("composite.downstream.coalesced")
+            .tag("operation", "getProduct").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce("product", 1, () -> Mono.fromCallable(calls::incrementAndGet)).block();
+        coalescer.coalesce("product", 1, () -> Mono.fromCallable(calls::incrementAndGet)).block();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void callersWithDifferentPrincipalsShareACall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> downstream = Sinks.one();
+        Supplier<Mono<String>> call = () -> {
+            calls.incrementAndGet();
+            return downstream.asMono();
+        };
+
+        coalescer.coalesce("product", 1, call)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new TestingAuthenticationToken("alice", null)))
+            .subscribe();
+        coalescer.coalesce("product", 1, call)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new TestingAuthenticationToken("bob", null)))
+            .subscribe();
+        coalescer.coalesce("product", 1, call)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new TestingAuthenticationToken("alice", null)))
+            .subscribe();
+        coalescer.coalesce("product", 2, call).subscribe();
+        downstream.tryEmitValue("result");
+
+        // principal 과 관계없이 같은 productId 의 호출은 하나로 합치고, 다른 productId 는 따로 호출한다.
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void reissuesWithTheLatestDeadlineOfWaitingCallers() {
+        List<Optional<Deadline>> deadlines = new ArrayList<>();
+        Sinks.One<String> first = Sinks.one();
+        Supplier<Mono<String>> call = () -> Mono.deferContextual(context -> {
+            deadlines.add(Deadline.from(context));
+            return deadlines.size() == 1 ? first.asMono() : Mono.just("result");
+        });
+        Deadline shortDeadline = Deadline.after(Duration.ofMillis(500));
+        Deadline longDeadline = Deadline.after(Duration.ofSeconds(10));
+
+        List<String> results = new ArrayList<>();
+        coalescer.coalesce("product", 1, call)
+            .contextWrite(context -> Deadline.put(context, shortDeadline))
+            .subscribe(results::add);
+        coalescer.coalesce("product", 1, call)
+            .contextWrite(context -> Deadline.put(context, longDeadline))
+            .subscribe(results::add);
+        // leader 의 deadline 으로 보낸 호출이 core 서비스에서 중단되었다.
+        first.tryEmitError(new DeadlineExceededException("Request deadline exceeded"));
+
+        assertEquals(List.of(Optional.of(shortDeadline), Optional.of(longDeadline)), deadlines);
+        assertEquals(List.of("result", "result"), results);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+}
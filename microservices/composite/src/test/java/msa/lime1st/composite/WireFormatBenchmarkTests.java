@@ -0,0 +1,109 @@
+package msa.lime1st.composite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import msa.lime1st.api.core.product.ProductResponse;
+import msa.lime1st.api.core.recommendation.RecommendationResponse;
+import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.util.benchmark.Benchmark;
+import msa.lime1st.util.benchmark.BenchmarkReport;
+import org.junit.jupiter.api.Test;
+
+/**
+ * composite 와 core 서비스 사이의 응답 형식(JSON, Smile) 비교.
+ * <p>
+ * BENCHMARK=true ./gradlew :microservices:composite:test --tests '*WireFormatBenchmarkTests' -i
+ */
+class WireFormatBenchmarkTests {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final ObjectMapper smile = new SmileMapper();
+
+    @Test
+    void smileRoundTripsCoreResponses() throws IOException {
+        for (Case<?> c : cases(100)) {
+            byte[] jsonBytes = json.writeValueAsBytes(c.payload());
+            byte[] smileBytes = smile.writeValueAsBytes(c.payload());
+
+            assertEquals(c.payload(), smile.readerForListOf(c.type()).readValue(smileBytes));
+            assertTrue(smileBytes.length < jsonBytes.length,
+                c.name() + ": smile " + smileBytes.length + " bytes, json " + jsonBytes.length + " bytes");
+        }
+    }
+
+    @Benchmark
+    void benchmark() throws IOException {
+        try (BenchmarkReport report = BenchmarkReport.of("wire-format", "%-24s %6s %-6s %10s %14s %14s",
+            "type", "items", "format", "bytes", "encode ns/op", "decode ns/op")) {
+            for (int size : new int[]{1, 10, 100}) {
+                for (Case<?> c : cases(size)) {
+                    measure(report, c, "json", json);
+                    measure(report, c, "smile", smile);
+                }
+            }
+        }
+    }
+
+    /**
+     * 벽시계 시간이 아닌 현재 스레드의 CPU 시간을 측정한다.
+     */
+    private void measure(BenchmarkReport report, Case<?> c, String format, ObjectMapper mapper) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ObjectReader reader = mapper.readerForListOf(c.type());
+        byte[] bytes = mapper.writeValueAsBytes(c.payload());
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(c.payload());
+            reader.readValue(bytes);
+        }
+
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(c.payload());
+        }
+        long encodeNanos = threads.getCurrentThreadCpuTime() - start;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            reader.readValue(bytes);
+        }
+        long decodeNanos = threads.getCurrentThreadCpuTime() - start;
+
+        report.row(c.name(), c.payload().size(), format, bytes.length,
+            encodeNanos / MEASURED_ITERATIONS, decodeNanos / MEASURED_ITERATIONS);
+    }
+
+    private static List<Case<?>> cases(int size) {
+        return List.of(
+            Case.of("ProductResponse", ProductResponse.class, size,
+                i -> ProductResponse.of(i, "product name " + i, i, "product-7d9f/10.0.0.12:8080")),
+            Case.of("RecommendationResponse", RecommendationResponse.class, size,
+                i -> RecommendationResponse.of(1, i, "author " + i, i % 5,
+                    "recommendation content " + i, "recommendation-5c4b/10.0.0.13:8080")),
+            Case.of("ReviewResponse", ReviewResponse.class, size,
+                i -> ReviewResponse.of(1, i, "author " + i, "subject " + i,
+                    "review content that is a bit longer than the subject " + i, "review-6a1e/10.0.0.14:8080"))
+        );
+    }
+
+    private record Case<T>(String name, Class<T> type, List<T> payload) {
+
+        static <T> Case<T> of(String name, Class<T> type, int size, IntFunction<T> factory) {
+            return new Case<>(name, type, IntStream.range(0, size).mapToObj(factory).toList());
+        }
+    }
+}
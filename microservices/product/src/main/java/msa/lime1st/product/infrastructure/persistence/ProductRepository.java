@@ -1,9 +1,13 @@
 package msa.lime1st.product.infrastructure.persistence;
 
+import java.util.Collection;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ProductRepository extends ReactiveCrudRepository<ProductDocument, String> {
 
     Mono<ProductDocument> findByProductId(int productId);
+
+    Flux<ProductDocument> findByProductIdIn(Collection<Integer> productIds);
 }
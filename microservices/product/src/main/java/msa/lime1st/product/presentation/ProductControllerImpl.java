@@ -1,6 +1,7 @@
 package msa.lime1st.product.presentation;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import msa.lime1st.api.core.product.ProductApi;
@@ -11,10 +12,12 @@ import msa.lime1st.product.infrastructure.persistence.ProductRepository;
 import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.util.exception.NotFoundException;
 import msa.lime1st.util.http.ApiUtil;
+import msa.lime1st.util.http.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -70,6 +73,24 @@ public class ProductControllerImpl implements ProductApi {
             .map(document -> throwErrorIfBadLuck(document, faultPercent))
             .delayElement(Duration.ofSeconds(delay))    // 지연 적용
             .switchIfEmpty(Mono.error(new NotFoundException("No product found for productId: " + productId)))
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::documentToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()))
+            .transform(response -> ETags.checkNotModified(response, product ->
+                ETags.of("product", product.withServiceAddress(null))));
+    }
+
+    @Override
+    public Flux<ProductResponse> getProducts(List<Integer> productIds) {
+
+        if (productIds.stream().anyMatch(productId -> productId == null || productId < 1)) {
+            throw new InvalidInputException("Invalid productIds: " + productIds);
+        }
+
+        LOG.info("Will get product info for {} ids", productIds.size());
+
+        return repository.findByProductIdIn(productIds)
             .log(LOG.getName(), Level.FINE)
             .map(mapper::documentToResponse)
             .map(response ->
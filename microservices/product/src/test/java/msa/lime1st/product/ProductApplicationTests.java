@@ -1,23 +1,31 @@
 package msa.lime1st.product;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.HttpStatus.OK;
 
+import java.time.Duration;
 import java.util.function.Consumer;
+import msa.lime1st.api.core.CoreMediaType;
 import msa.lime1st.api.core.product.ProductRequest;
+import msa.lime1st.api.core.product.ProductResponse;
 import msa.lime1st.api.event.Event;
 import msa.lime1st.api.event.Event.Type;
 import msa.lime1st.product.infrastructure.persistence.MongoDbTestBase;
 import msa.lime1st.product.infrastructure.persistence.ProductRepository;
 import msa.lime1st.util.exception.InvalidInputException;
+import msa.lime1st.util.http.Deadline;
+import msa.lime1st.util.http.HttpErrorInfo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -25,6 +33,8 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 @SpringBootTest(webEnvironment = RANDOM_PORT)
 class ProductApplicationTests extends MongoDbTestBase {
 
+    private static final MediaType SMILE = MediaType.parseMediaType(CoreMediaType.APPLICATION_SMILE_VALUE);
+
     @Autowired
     private WebTestClient client;
 
@@ -78,6 +88,131 @@ class ProductApplicationTests extends MongoDbTestBase {
 //        assertEquals("Duplicate key, Product Id: " + productId, thrown.getMessage());
 //    }
 
+    @Test
+    void getProductNotModified() {
+
+        int productId = 1;
+        sendCreateProductEvent(productId);
+
+        String etag = getAndVerifyProduct(productId, OK)
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        assertNotNull(etag);
+
+        client.get()
+            .uri("/product/" + productId)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    void getRecreatedProductWithOldETag() {
+
+        int productId = 1;
+        sendCreateProductEvent(productId);
+
+        String etag = getAndVerifyProduct(productId, OK)
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // 삭제 후 다시 만들면 version 은 다시 0 이지만 내용이 다르므로 이전 ETag 로 304 를 받지 않는다.
+        sendDeleteProductEvent(productId);
+        sendCreateProductEvent(productId, "Renamed " + productId);
+
+        String recreatedEtag = client.get()
+            .uri("/product/" + productId)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+            .exchange()
+            .expectStatus().isEqualTo(OK)
+            .expectBody()
+            .jsonPath("$.name").isEqualTo("Renamed " + productId)
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        assertNotNull(recreatedEtag);
+        assertNotEquals(etag, recreatedEtag);
+    }
+
+    @Test
+    void getProductDeadlineExceeded() {
+
+        int productId = 1;
+        sendCreateProductEvent(productId);
+
+        // 3초 지연되는 요청이지만 500ms 의 deadline 이 지나면 처리를 중단하고 바로 응답한다.
+        long start = System.nanoTime();
+        client.get()
+            .uri("/product/" + productId + "?delay=3")
+            .accept(MediaType.APPLICATION_JSON)
+            .header(Deadline.HEADER, "500")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    void getProductDeadlineAlreadyExpired() {
+
+        int productId = 1;
+        sendCreateProductEvent(productId);
+
+        client.get()
+            .uri("/product/" + productId)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(Deadline.HEADER, "0")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void getProductAsSmile() {
+
+        int productId = 1;
+        sendCreateProductEvent(productId);
+
+        ProductResponse response = client.get()
+            .uri("/product/" + productId)
+            .accept(SMILE, MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(SMILE)
+            .expectBody(ProductResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertNotNull(response);
+        assertEquals(productId, response.productId());
+        assertEquals("Name " + productId, response.name());
+    }
+
+    @Test
+    void getProductNotFoundAsSmile() {
+
+        int productIdNotFound = 13;
+
+        HttpErrorInfo error = client.get()
+            .uri("/product/" + productIdNotFound)
+            .accept(SMILE, MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectHeader().contentType(SMILE)
+            .expectBody(HttpErrorInfo.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertNotNull(error);
+        assertEquals("No product found for productId: " + productIdNotFound, error.message());
+    }
+
     @Test
     void deleteProduct() {
         // product 도큐먼트를 삭제한 다음 다시 삭제 요청을 보내 멱등성(동일 리소스에 대한 응답은 같다)이 있는지 확인한다.
@@ -137,9 +272,13 @@ class ProductApplicationTests extends MongoDbTestBase {
     }
 
     private void sendCreateProductEvent(int productId) {
+        sendCreateProductEvent(productId, "Name " + productId);
+    }
+
+    private void sendCreateProductEvent(int productId, String name) {
         ProductRequest product = ProductRequest.of(
             productId,
-            "Name " + productId,
+            name,
             productId,
             "SA"
         );
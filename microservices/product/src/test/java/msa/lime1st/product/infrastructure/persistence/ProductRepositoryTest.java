@@ -1,5 +1,6 @@
 package msa.lime1st.product.infrastructure.persistence;
 
+import java.util.List;
 import java.util.Objects;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -96,6 +97,19 @@ class ProductRepositoryTest extends MongoDbTestBase{
             .verifyComplete();
     }
 
+    @Test
+    void getByProductIdIn() {
+
+        StepVerifier.create(repository.save(ProductDocument.create(2, "n", 2)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        StepVerifier.create(repository.findByProductIdIn(List.of(savedDocument.getProductId(), 3)))
+            .expectNextMatches(foundEntity ->
+                areProductEqual(savedDocument, foundEntity))
+            .verifyComplete();
+    }
+
 //    @Test
 //    void duplicateError() {
 //
@@ -1,5 +1,6 @@
 package msa.lime1st.recommendation.infrastructure.config;
 
+import java.util.List;
 import java.util.function.Consumer;
 import msa.lime1st.api.core.recommendation.RecommendationApi;
 import msa.lime1st.api.core.recommendation.RecommendationRequest;
@@ -34,6 +35,12 @@ public class MessageProcessorConfig {
           api.postRecommendation(request).block();
           break;
 
+        case BULK_CREATE:
+          List<RecommendationRequest> requests = event.bulkData();
+          LOG.info("Create {} recommendations with ProductID: {}", requests.size(), event.key());
+          api.postRecommendations(requests).then().block();
+          break;
+
         case DELETE:
           int productId = event.key();
           LOG.info("Delete recommendations with ProductID: {}", productId);
@@ -41,7 +48,7 @@ public class MessageProcessorConfig {
           break;
 
         default:
-          String errorMessage = "Incorrect event type: " + event.eventType() + ", expected a CREATE or DELETE event";
+          String errorMessage = "Incorrect event type: " + event.eventType() + ", expected a CREATE, BULK_CREATE or DELETE event";
           LOG.warn(errorMessage);
           throw new EventProcessingException(errorMessage);
       }
@@ -1,12 +1,15 @@
 package msa.lime1st.recommendation.infrastructure.persistence;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 
 public interface RecommendationRepository extends
-    ReactiveCrudRepository<RecommendationDocument, String> {
+    ReactiveCrudRepository<RecommendationDocument, String>, RecommendationRepositoryCustom {
 
     Flux<RecommendationDocument> findByProductId(int productId);
+
+    Flux<RecommendationDocument> findByProductIdIn(Collection<Integer> productIds);
 }
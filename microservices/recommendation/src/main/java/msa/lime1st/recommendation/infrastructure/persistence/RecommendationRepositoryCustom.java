@@ -0,0 +1,12 @@
+package msa.lime1st.recommendation.infrastructure.persistence;
+
+import java.util.Collection;
+import reactor.core.publisher.Flux;
+
+public interface RecommendationRepositoryCustom {
+
+    /**
+     * 지정한 document 필드만 읽는다. 읽지 않은 필드는 null 또는 0 이 된다.
+     */
+    Flux<RecommendationDocument> findByProductId(int productId, Collection<String> fields);
+}
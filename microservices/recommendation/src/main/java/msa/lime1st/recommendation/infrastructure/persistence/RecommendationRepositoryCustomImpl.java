@@ -0,0 +1,26 @@
+package msa.lime1st.recommendation.infrastructure.persistence;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Collection;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+public class RecommendationRepositoryCustomImpl implements RecommendationRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public RecommendationRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<RecommendationDocument> findByProductId(int productId, Collection<String> fields) {
+        Query query = new Query(where("productId").is(productId));
+        query.fields()
+            .include("productId", "recommendationId")
+            .include(fields.toArray(String[]::new));
+        return mongoTemplate.find(query, RecommendationDocument.class);
+    }
+}
@@ -1,5 +1,7 @@
 package msa.lime1st.recommendation.presentation;
 
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import msa.lime1st.api.core.recommendation.RecommendationApi;
 import msa.lime1st.api.core.recommendation.RecommendationRequest;
@@ -7,6 +9,7 @@ import msa.lime1st.api.core.recommendation.RecommendationResponse;
 import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.recommendation.infrastructure.persistence.RecommendationRepository;
 import msa.lime1st.util.http.ApiUtil;
+import msa.lime1st.util.http.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
@@ -19,6 +22,14 @@ public class RecommendationControllerImpl implements RecommendationApi {
 
     private static final Logger LOG = LoggerFactory.getLogger(RecommendationControllerImpl.class);
 
+    // API 필드 이름 -> document 필드 이름
+    private static final Map<String, String> DOCUMENT_FIELDS = Map.of(
+        "recommendationId", "recommendationId",
+        "author", "author",
+        "rate", "rating",
+        "content", "content"
+    );
+
     private final ApiUtil apiUtil;
     private final RecommendationMapper mapper;
     private final RecommendationRepository repository;
@@ -47,6 +58,26 @@ public class RecommendationControllerImpl implements RecommendationApi {
             .map(mapper::documentToResponse);
     }
 
+    @Override
+    public Flux<RecommendationResponse> postRecommendations(List<RecommendationRequest> requests) {
+
+        if (requests.stream().anyMatch(request -> request.productId() < 1)) {
+            throw new InvalidInputException("Invalid productId in: " + requests);
+        }
+
+        // 모든 document 가 새 document 이므로 saveAll() 은 한 번의 bulk insert 로 처리된다.
+        return repository.saveAll(mapper.requestListToDocumentList(requests))
+            .log(LOG.getName(), Level.FINE)
+            .onErrorMap(
+                DuplicateKeyException.class,
+                ex -> new InvalidInputException(
+                    "Duplicate key, Product Id: " + requests.get(0).productId() +
+                        ", Recommendation Ids: " + requests.stream()
+                        .map(RecommendationRequest::recommendationId)
+                        .toList()))
+            .map(mapper::documentToResponse);
+    }
+
     @Override
     public Flux<RecommendationResponse> getRecommendations(int productId) {
 
@@ -57,6 +88,52 @@ public class RecommendationControllerImpl implements RecommendationApi {
         LOG.info("Will get recommendations for product with id={}", productId);
 
         return repository.findByProductId(productId)
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::documentToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()))
+            .transform(responses -> ETags.checkNotModified(responses, recommendations ->
+                ETags.of("recommendation", productId, recommendations.stream()
+                    .map(r -> r.withServiceAddress(null))
+                    .toList())));
+    }
+
+    @Override
+    public Flux<RecommendationResponse> getRecommendations(int productId, List<String> fields) {
+
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
+
+        List<String> documentFields = fields.stream()
+            .map(field -> {
+                String documentField = DOCUMENT_FIELDS.get(field);
+                if (documentField == null) {
+                    throw new InvalidInputException("Invalid field: " + field);
+                }
+                return documentField;
+            })
+            .toList();
+
+        LOG.info("Will get recommendations for product with id={}, fields={}", productId, fields);
+
+        return repository.findByProductId(productId, documentFields)
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::documentToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()));
+    }
+
+    @Override
+    public Flux<RecommendationResponse> getRecommendationsByProductIds(List<Integer> productIds) {
+
+        if (productIds.stream().anyMatch(productId -> productId == null || productId < 1)) {
+            throw new InvalidInputException("Invalid productIds: " + productIds);
+        }
+
+        LOG.info("Will get recommendations for {} products", productIds.size());
+
+        return repository.findByProductIdIn(productIds)
             .log(LOG.getName(), Level.FINE)
             .map(mapper::documentToResponse)
             .map(response ->
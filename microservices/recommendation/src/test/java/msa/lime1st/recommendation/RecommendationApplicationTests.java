@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 import msa.lime1st.api.core.recommendation.RecommendationRequest;
 import msa.lime1st.api.event.Event;
@@ -57,6 +59,19 @@ class RecommendationApplicationTests extends MongoDbTestBase {
             .jsonPath("$[2].recommendationId").isEqualTo(3);
     }
 
+    @Test
+    void createRecommendationsWithBulkEvent() {
+
+        int productId = 1;
+
+        sendBulkCreateRecommendationEvent(productId, 1, 2, 3);
+
+        assertEquals(3, repository.findByProductId(productId).count().block());
+
+        getAndVerifyRecommendationsByProductId(productId)
+            .jsonPath("$.length()").isEqualTo(3);
+    }
+
 //    @Test
 //    void duplicateError() {
 //
@@ -155,6 +170,20 @@ class RecommendationApplicationTests extends MongoDbTestBase {
         messageProcessor.accept(event);
     }
 
+    private void sendBulkCreateRecommendationEvent(int productId, int... recommendationIds) {
+        List<RecommendationRequest> requests = Arrays.stream(recommendationIds)
+            .mapToObj(recommendationId -> RecommendationRequest.of(
+                productId,
+                recommendationId,
+                "Author " + recommendationId,
+                recommendationId,
+                "Content " + recommendationId,
+                "SA"
+            ))
+            .toList();
+        messageProcessor.accept(Event.createBulk(productId, requests));
+    }
+
     private void sendDeleteRecommendationEvent(int productId) {
         Event<Integer, RecommendationRequest> event = Event.create(
             Type.DELETE,
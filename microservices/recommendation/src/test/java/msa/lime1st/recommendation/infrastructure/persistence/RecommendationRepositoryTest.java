@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
@@ -82,6 +83,33 @@ class RecommendationRepositoryTest extends MongoDbTestBase {
         assertEqualsRecommendation(savedDocument, documentList.get(0));
     }
 
+    @Test
+    void getByProductIdWithFields() {
+        List<RecommendationDocument> documentList = repository.findByProductId(
+                savedDocument.getProductId(), List.of("author"))
+            .collectList()
+            .block();
+
+        assertThat(documentList, hasSize(1));
+        RecommendationDocument document = documentList.get(0);
+        assertEquals(savedDocument.getRecommendationId(), document.getRecommendationId());
+        assertEquals(savedDocument.getAuthor(), document.getAuthor());
+        assertNull(document.getContent());
+    }
+
+    @Test
+    void getByProductIdIn() {
+        repository.save(RecommendationDocument.create(2, 2, "a", 3, "c")).block();
+        repository.save(RecommendationDocument.create(3, 2, "a", 3, "c")).block();
+
+        List<RecommendationDocument> documentList = repository.findByProductIdIn(
+                List.of(savedDocument.getProductId(), 2))
+            .collectList()
+            .block();
+
+        assertThat(documentList, hasSize(2));
+    }
+
 //    @Test
 //    void duplicateError() {
 //        assertThrows(DuplicateKeyException.class, () -> {
@@ -16,7 +16,9 @@ public class ReviewApplication {
     public static void main(String[] args) {
         ConfigurableApplicationContext ctx = SpringApplication.run(ReviewApplication.class, args);
 
-        String mysqlUri = ctx.getEnvironment().getProperty("spring.datasource.url");
+        // r2dbc 프로필에서는 spring.r2dbc.url 을 사용한다.
+        String mysqlUri = ctx.getEnvironment().getProperty("spring.r2dbc.url",
+            ctx.getEnvironment().getProperty("spring.datasource.url"));
         LOG.info("Connected to MySQL: {}", mysqlUri);
     }
 
@@ -1,5 +1,6 @@
 package msa.lime1st.review.infrastructure.config;
 
+import java.util.List;
 import java.util.function.Consumer;
 import msa.lime1st.api.core.review.ReviewApi;
 import msa.lime1st.api.core.review.ReviewRequest;
@@ -35,6 +36,12 @@ public class MessageProcessorConfig {
           api.postReview(request).block();
           break;
 
+        case BULK_CREATE:
+          List<ReviewRequest> requests = event.bulkData();
+          LOG.info("Create {} reviews with ProductID: {}", requests.size(), event.key());
+          api.postReviews(requests).then().block();
+          break;
+
         case DELETE:
           int productId = event.key();
           LOG.info("Delete recommendations with ProductID: {}", productId);
@@ -42,7 +49,7 @@ public class MessageProcessorConfig {
           break;
 
         default:
-          String errorMessage = "Incorrect event type: " + event.eventType() + ", expected a CREATE or DELETE event";
+          String errorMessage = "Incorrect event type: " + event.eventType() + ", expected a CREATE, BULK_CREATE or DELETE event";
           LOG.warn(errorMessage);
           throw new EventProcessingException(errorMessage);
       }
@@ -1,13 +1,29 @@
 package msa.lime1st.review.infrastructure.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+/**
+ * 블로킹 JPA 코드를 실행하는 jdbcScheduler.
+ * <p>
+ * schedulerMode:
+ * bounded-elastic - 스레드 threadPoolSize 개와 대기열 taskQueueSize 개. 느린 쿼리가 스레드를 모두 잡고 있으면
+ *                   요청이 대기열에서 기다리고, 대기열이 차면 거절된다.
+ * virtual         - 작업마다 virtual thread 를 만든다. 스레드 수 제한이 없으므로 동시 실행 수는 Hikari pool 크기로만 제한되고,
+ *                   connection 을 기다리는 동안에는 carrier thread 를 점유하지 않는다.
+ * <p>
+ * 메트릭: review.jdbc.scheduler.tasks.{submitted,active,completed,pending}{mode}.
+ * pending 이 대기열에서 기다리는 작업이고, connection 을 기다리는 시간은 hikaricp.connections.acquire, pending 으로 확인한다.
+ */
 @Configuration
 public class SchedulerConfig {
 
@@ -15,18 +31,33 @@ public class SchedulerConfig {
 
     private final Integer threadPoolSize;
     private final Integer taskQueueSize;
+    private final String schedulerMode;
 
     public SchedulerConfig(
         @Value("${app.threadPoolSize:10}") Integer threadPoolSize,
-        @Value("${app.taskQueueSize:100}") Integer taskQueueSize
+        @Value("${app.taskQueueSize:100}") Integer taskQueueSize,
+        @Value("${app.schedulerMode:bounded-elastic}") String schedulerMode
     ) {
         this.threadPoolSize = threadPoolSize;
         this.taskQueueSize = taskQueueSize;
+        this.schedulerMode = schedulerMode;
     }
 
     @Bean
-    public Scheduler jdbcScheduler() {
-        LOG.info("Creates a messagingScheduler with connectionPoolSize = {}", threadPoolSize);
-        return Schedulers.newBoundedElastic(threadPoolSize, taskQueueSize, "jdbc-pool");
+    public Scheduler jdbcScheduler(MeterRegistry registry) {
+        Scheduler scheduler = switch (schedulerMode) {
+            case "bounded-elastic" -> {
+                LOG.info("Creates a jdbcScheduler with threadPoolSize = {}, taskQueueSize = {}", threadPoolSize, taskQueueSize);
+                yield Schedulers.newBoundedElastic(threadPoolSize, taskQueueSize, "jdbc-pool");
+            }
+            case "virtual" -> {
+                LOG.info("Creates a jdbcScheduler backed by virtual threads");
+                yield Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-virtual-", 0).factory()),
+                    "jdbc-virtual");
+            }
+            default -> throw new IllegalArgumentException("Unsupported scheduler mode: " + schedulerMode);
+        };
+        return Micrometer.timedScheduler(scheduler, registry, "review.jdbc", Tags.of("mode", schedulerMode));
     }
 }
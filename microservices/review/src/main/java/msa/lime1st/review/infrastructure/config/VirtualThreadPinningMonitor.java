@@ -0,0 +1,84 @@
+package msa.lime1st.review.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * virtual thread 가 synchronized 블록이나 native 호출 안에서 블로킹되어 carrier thread 를 붙잡은(pinned) 경우를 기록한다.
+ * <p>
+ * JFR 의 jdk.VirtualThreadPinned 이벤트를 구독해 review.jdbc.virtual.pinned 타이머로 기록하고, 어디서 발생했는지 스택을 로그로 남긴다.
+ * pinning 이 잦으면 carrier thread(CPU 코어 수)만큼만 동시에 실행되므로 bounded-elastic 보다 나빠질 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.schedulerMode", havingValue = "virtual")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final int MAX_LOGGED_FRAMES = 10;
+
+    private final Duration threshold;
+    private final Timer pinned;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+        @Value("${app.virtualThreads.pinnedThresholdMillis:20}") long thresholdMillis,
+        MeterRegistry registry
+    ) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinned = Timer.builder("review.jdbc.virtual.pinned")
+            .description("Time virtual threads spent blocked while pinned to a carrier thread")
+            .register(registry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", this::record);
+        recording.startAsync();
+        stream = recording;
+        LOG.info("Started monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (LOG.isWarnEnabled() && event.getStackTrace() != null) {
+            LOG.warn("Virtual thread pinned for {} ms at:\n\t{}", event.getDuration().toMillis(),
+                event.getStackTrace().getFrames().stream()
+                    .limit(MAX_LOGGED_FRAMES)
+                    .map(VirtualThreadPinningMonitor::format)
+                    .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,112 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * repository 가 reactive 가 아니므로 블로킹 코드를 Mono.fromCallable() 로 감싸고,
+ * subscribeOn() 으로 jdbcScheduler 의 스레드에서 실행한다. 즉 스레드 분기가 일어난다.
+ */
+@Component
+@Profile("!r2dbc")
+public class JpaReviewStore implements ReviewStore {
+
+    private final Scheduler jdbcScheduler;
+    private final ReviewRepository repository;
+    private final int fetchSize;
+
+    public JpaReviewStore(
+        Scheduler jdbcScheduler,
+        ReviewRepository repository,
+        @Value("${app.review.fetchSize:100}") int fetchSize
+    ) {
+        this.jdbcScheduler = jdbcScheduler;
+        this.repository = repository;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Mono<ReviewEntity> save(ReviewEntity entity) {
+        return Mono.fromCallable(() -> repository.save(entity))
+            .subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Flux<ReviewEntity> saveAll(List<ReviewEntity> entities) {
+        // 하나의 트랜잭션에서 실행되고, insert 는 JDBC batch 로 보낸다.
+        return Mono.fromCallable(() -> repository.insertAll(entities))
+            .flatMapMany(Flux::fromIterable)
+            .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * fetchSize 개씩 페이지로 나눠 읽는다. 페이지마다 deadline 을 확인하고 connection 을 반환한다.
+     */
+    @Override
+    public Flux<ReviewView> findByProductId(int productId) {
+        return ReviewPages.readAll((after, limit) -> findByProductId(productId, after, limit), fetchSize);
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductId(int productId, int after, int limit) {
+        return read(deadline -> repository.findPageByProductId(productId, after, limit, deadline));
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductId(int productId, Collection<String> fields) {
+        return ReviewPages.readAll((after, limit) ->
+            read(deadline -> repository.findPageByProductId(productId, fields, after, limit, deadline)), fetchSize);
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductIdIn(Collection<Integer> productIds) {
+        return read(deadline -> repository.findByProductIdIn(productIds, deadline));
+    }
+
+    @Override
+    public Mono<Void> deleteByProductId(int productId) {
+        return Mono.fromRunnable(() -> repository.deleteAll(repository.findByProductId(productId)))
+            .subscribeOn(jdbcScheduler)
+            .then();
+    }
+
+    /**
+     * jdbcScheduler 의 대기열에서 기다리는 동안 deadline 이 지날 수 있으므로 실행하기 직전에 확인한다.
+     * 쿼리마다 남은 시간을 query timeout 으로 지정하므로 페이지로 나눠 읽으면 각 페이지가 그때 남은 시간 안에 끝나야 한다.
+     */
+    private Flux<ReviewView> read(Query query) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                Optional<Deadline> deadline = Deadline.from(context);
+                checkDeadline(deadline);
+                try {
+                    return query.run(deadline);
+                } catch (QueryTimeoutException qte) {
+                    throw new DeadlineExceededException("Query timed out", qte);
+                }
+            }))
+            .flatMapMany(Flux::fromIterable)
+            .subscribeOn(jdbcScheduler);
+    }
+
+    private static void checkDeadline(Optional<Deadline> deadline) {
+        if (deadline.filter(Deadline::isExpired).isPresent()) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Query {
+
+        List<ReviewView> run(Optional<Deadline> deadline);
+    }
+}
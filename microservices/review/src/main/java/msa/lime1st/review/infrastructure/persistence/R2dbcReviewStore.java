@@ -0,0 +1,180 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import io.r2dbc.spi.Readable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import msa.lime1st.util.http.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC 로 reviews 테이블에 접근한다. JPA 와 같은 테이블, 같은 unique 인덱스(product_id, review_id)를 사용한다.
+ * <p>
+ * 드라이버에서 행을 읽는 대로 내보내고 요청한 만큼만 읽으므로(backpressure) 목록 전체를 메모리에 모으지 않는다.
+ * product 의 review 전체는 fetchSize 개씩 페이지로 나눠 읽어 느린 클라이언트가 connection 을 붙잡고 있지 않게 한다.
+ * 구독이 취소되면 쿼리도 취소되므로 DeadlineFilter 의 timeout 으로 쿼리가 끝난다. 별도의 query timeout 은 두지 않는다.
+ */
+@Component
+@Profile("r2dbc")
+public class R2dbcReviewStore implements ReviewStore {
+
+    private static final String COLUMNS = "id, version, product_id, review_id, author, subject, content";
+    private static final String VIEW_COLUMNS = "product_id, review_id, author, subject, content, version";
+
+    // API 필드 이름 -> 컬럼 이름
+    private static final Map<String, String> FIELD_COLUMNS = Map.of(
+        "reviewId", "review_id",
+        "author", "author",
+        "subject", "subject",
+        "content", "content"
+    );
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+    private final ReviewIdAllocator idAllocator;
+    private final int fetchSize;
+
+    public R2dbcReviewStore(
+        DatabaseClient client,
+        ReactiveTransactionManager transactionManager,
+        @Value("${app.review.fetchSize:100}") int fetchSize
+    ) {
+        this.client = client;
+        this.fetchSize = fetchSize;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.idAllocator = new ReviewIdAllocator(client, TransactionalOperator.create(transactionManager,
+            new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW)));
+    }
+
+    @Override
+    public Mono<ReviewEntity> save(ReviewEntity entity) {
+        return insert(entity);
+    }
+
+    @Override
+    public Flux<ReviewEntity> saveAll(List<ReviewEntity> entities) {
+        return Flux.fromIterable(entities)
+            .concatMap(this::insert)
+            .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductId(int productId) {
+        return ReviewPages.readAll((after, limit) -> findByProductId(productId, after, limit), fetchSize);
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductId(int productId, int after, int limit) {
+        return read(client.sql("SELECT " + VIEW_COLUMNS + " FROM reviews"
+                + " WHERE product_id = :productId AND review_id > :after ORDER BY review_id LIMIT :limit")
+            .bind("productId", productId)
+            .bind("after", after)
+            .bind("limit", limit)
+            .map(R2dbcReviewStore::toView)
+            .all());
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductId(int productId, Collection<String> fields) {
+        Set<String> columns = new LinkedHashSet<>(List.of("product_id", "review_id"));
+        fields.stream()
+            .map(field -> {
+                String column = FIELD_COLUMNS.get(field);
+                if (column == null) {
+                    throw new IllegalArgumentException("Unknown field: " + field);
+                }
+                return column;
+            })
+            .forEach(columns::add);
+
+        return ReviewPages.readAll((after, limit) -> read(client.sql("SELECT " + String.join(", ", columns)
+                + " FROM reviews WHERE product_id = :productId AND review_id > :after ORDER BY review_id LIMIT :limit")
+            .bind("productId", productId)
+            .bind("after", after)
+            .bind("limit", limit)
+            .map(row -> new ReviewView(
+                productId,
+                row.get("review_id", Integer.class),
+                stringOrNull(row, columns, "author"),
+                stringOrNull(row, columns, "subject"),
+                stringOrNull(row, columns, "content"),
+                0
+            ))
+            .all()), fetchSize);
+    }
+
+    @Override
+    public Flux<ReviewView> findByProductIdIn(Collection<Integer> productIds) {
+        return read(client.sql("SELECT " + VIEW_COLUMNS
+                + " FROM reviews WHERE product_id IN (:productIds) ORDER BY product_id, review_id")
+            .bind("productIds", productIds)
+            .map(R2dbcReviewStore::toView)
+            .all());
+    }
+
+    @Override
+    public Mono<Void> deleteByProductId(int productId) {
+        return client.sql("DELETE FROM reviews WHERE product_id = :productId")
+            .bind("productId", productId)
+            .then();
+    }
+
+    private Mono<ReviewEntity> insert(ReviewEntity entity) {
+        return idAllocator.nextId().flatMap(id -> {
+            GenericExecuteSpec spec = client.sql("INSERT INTO reviews (" + COLUMNS + ")"
+                    + " VALUES (:id, 0, :productId, :reviewId, :author, :subject, :content)")
+                .bind("id", id)
+                .bind("productId", entity.getProductId())
+                .bind("reviewId", entity.getReviewId());
+            spec = bindNullable(spec, "author", entity.getAuthor());
+            spec = bindNullable(spec, "subject", entity.getSubject());
+            spec = bindNullable(spec, "content", entity.getContent());
+            return spec.then().then(Mono.fromCallable(() -> {
+                entity.setId(id);
+                entity.setVersion(0);
+                return entity;
+            }));
+        });
+    }
+
+    /**
+     * 쿼리를 시작하기 전에 deadline 을 확인한다.
+     */
+    private static Flux<ReviewView> read(Flux<ReviewView> query) {
+        return Flux.deferContextual(context -> Deadline.from(context).filter(Deadline::isExpired).isPresent()
+            ? Flux.error(new DeadlineExceededException("Request deadline exceeded"))
+            : query);
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private static ReviewView toView(Readable row) {
+        return new ReviewView(
+            row.get("product_id", Integer.class),
+            row.get("review_id", Integer.class),
+            row.get("author", String.class),
+            row.get("subject", String.class),
+            row.get("content", String.class),
+            row.get("version", Integer.class)
+        );
+    }
+
+    private static String stringOrNull(Readable row, Set<String> columns, String column) {
+        return columns.contains(column) ? row.get(column, String.class) : null;
+    }
+}
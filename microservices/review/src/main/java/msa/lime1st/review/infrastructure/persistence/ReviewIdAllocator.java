@@ -0,0 +1,78 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC 로 저장할 때 사용하는 ReviewEntity.id 할당기.
+ * <p>
+ * JPA 의 @SequenceGenerator(review_entity_seq) 와 같은 테이블, 같은 방식(Hibernate pooled optimizer)으로 할당한다.
+ * 테이블에서 읽은 값 v 를 v + allocationSize 로 올리고 [v - allocationSize + 1, v] 를 사용한다.
+ * 테이블의 초기값을 읽은 경우에만 한 번 더 읽어 [초기값, 두 번째 값] 을 사용한다.
+ * 따라서 두 모드의 인스턴스가 같은 테이블을 함께 사용해도 id 가 겹치지 않는다.
+ * <p>
+ * 값을 올리는 UPDATE 는 저장하는 트랜잭션과 별도의 트랜잭션(newTransaction)에서 commit 한다.
+ * 저장이 rollback 되어도 이미 받은 범위를 다른 인스턴스가 다시 받지 않도록 하기 위해서다.
+ */
+class ReviewIdAllocator {
+
+    static final String SEQUENCE_TABLE = "review_entity_seq";
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final long INITIAL_VALUE = 1;
+
+    private final DatabaseClient client;
+    private final TransactionalOperator newTransaction;
+
+    // 다음에 사용할 id 와 현재 범위의 마지막 id
+    private long next = 1;
+    private long hi = 0;
+
+    ReviewIdAllocator(DatabaseClient client, TransactionalOperator newTransaction) {
+        this.client = client;
+        this.newTransaction = newTransaction;
+    }
+
+    Mono<Integer> nextId() {
+        return Mono.defer(() -> {
+            Integer id = poll();
+            return id != null ? Mono.just(id) : allocate().map(this::install);
+        });
+    }
+
+    private synchronized Integer poll() {
+        return next <= hi ? (int) next++ : null;
+    }
+
+    /**
+     * 동시에 여러 요청이 범위를 받아 온 경우 남은 범위가 없을 때만 새 범위로 바꾸고, 나머지 범위는 버린다.
+     */
+    private synchronized int install(long[] range) {
+        if (next > hi) {
+            next = range[0];
+            hi = range[1];
+        }
+        return (int) next++;
+    }
+
+    private Mono<long[]> allocate() {
+        return readAndIncrement().flatMap(value -> value == INITIAL_VALUE
+            ? readAndIncrement().map(hiValue -> new long[]{INITIAL_VALUE, hiValue})
+            : Mono.just(new long[]{value - ALLOCATION_SIZE + 1, value}));
+    }
+
+    private Mono<Long> readAndIncrement() {
+        return client.sql("SELECT next_val FROM " + SEQUENCE_TABLE + " FOR UPDATE")
+            .map(row -> row.get("next_val", Long.class))
+            .one()
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException(SEQUENCE_TABLE + " is not initialized")))
+            .flatMap(value -> client.sql("UPDATE " + SEQUENCE_TABLE + " SET next_val = :next WHERE next_val = :value")
+                .bind("next", value + ALLOCATION_SIZE)
+                .bind("value", value)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(value))
+            .as(newTransaction::transactional);
+    }
+}
@@ -0,0 +1,33 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * product 의 review 전체를 keyset 페이지(after, limit)로 나눠 읽는다.
+ * <p>
+ * 페이지마다 쿼리를 따로 실행하므로 느린 클라이언트가 읽는 동안 DB connection 을 붙잡고 있지 않는다.
+ * 다음 페이지는 앞 페이지를 내보낸 뒤 요청이 오면 읽으므로 메모리에는 한 페이지만 둔다.
+ */
+final class ReviewPages {
+
+    private ReviewPages() {
+    }
+
+    static Flux<ReviewView> readAll(PageQuery query, int pageSize) {
+        return query.read(Integer.MIN_VALUE, pageSize).collectList()
+            .expand(page -> page.size() < pageSize
+                ? Mono.empty()
+                : query.read(page.get(page.size() - 1).reviewId(), pageSize).collectList())
+            .concatMapIterable(page -> page, 1);
+    }
+
+    /**
+     * reviewId 가 after 보다 큰 review 를 reviewId 순서로 최대 limit 개 읽는다.
+     */
+    @FunctionalInterface
+    interface PageQuery {
+
+        Flux<ReviewView> read(int after, int limit);
+    }
+}
@@ -1,10 +1,10 @@
 package msa.lime1st.review.infrastructure.persistence;
 
 import java.util.List;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface ReviewRepository extends CrudRepository<ReviewEntity, Integer> {
+public interface ReviewRepository extends ListCrudRepository<ReviewEntity, Integer>, ReviewRepositoryCustom {
 
     @Transactional(readOnly = true)
     List<ReviewEntity> findByProductId(int productId);
@@ -0,0 +1,33 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import msa.lime1st.util.http.Deadline;
+
+/**
+ * 조회 쿼리는 deadline 이 있으면 남은 시간을 query timeout 으로 지정해 호출한 쪽이 기다리지 않는 쿼리를 DB 에서 취소한다.
+ * JDBC query timeout 은 초 단위이므로 올림한 값을 사용한다. timeout 이 지나면 QueryTimeoutException 으로 끝난다.
+ */
+public interface ReviewRepositoryCustom {
+
+    /**
+     * keyset pagination. reviewId 가 after 보다 큰 review 를 reviewId 순서로 최대 limit 개 읽는다.
+     * 인덱스 (product_id, review_id) 의 범위 검색이므로 앞 페이지를 건너뛰는 비용이 없다.
+     */
+    List<ReviewView> findPageByProductId(int productId, int after, int limit, Optional<Deadline> deadline);
+
+    /**
+     * findPageByProductId() 와 같지만 지정한 컬럼만 SELECT 한다. 읽지 않은 필드는 null 이다.
+     */
+    List<ReviewView> findPageByProductId(int productId, Collection<String> fields, int after, int limit,
+        Optional<Deadline> deadline);
+
+    List<ReviewView> findByProductIdIn(Collection<Integer> productIds, Optional<Deadline> deadline);
+
+    /**
+     * 새 entity 를 하나의 트랜잭션에서 저장한다. batchSize 개마다 flush 해 insert 를 JDBC batch 로 보내고,
+     * persistence context 를 비워 목록이 커도 메모리 사용량이 늘지 않도록 한다.
+     */
+    List<ReviewEntity> insertAll(List<ReviewEntity> entities);
+}
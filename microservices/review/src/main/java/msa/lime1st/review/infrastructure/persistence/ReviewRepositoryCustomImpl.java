@@ -0,0 +1,116 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import msa.lime1st.util.http.Deadline;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ReviewRepositoryCustomImpl(
+        EntityManager entityManager,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize
+    ) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewView> findPageByProductId(int productId, int after, int limit, Optional<Deadline> deadline) {
+        TypedQuery<ReviewView> query = entityManager.createQuery(
+                "SELECT new msa.lime1st.review.infrastructure.persistence.ReviewView("
+                    + "r.productId, r.reviewId, r.author, r.subject, r.content, r.version) "
+                    + "FROM ReviewEntity r WHERE r.productId = :productId AND r.reviewId > :after ORDER BY r.reviewId",
+                ReviewView.class)
+            .setParameter("productId", productId)
+            .setParameter("after", after)
+            .setMaxResults(limit);
+        return withTimeout(query, deadline).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewView> findPageByProductId(int productId, Collection<String> fields, int after, int limit,
+        Optional<Deadline> deadline) {
+        Set<String> columns = new LinkedHashSet<>(List.of("productId", "reviewId"));
+        columns.addAll(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ReviewEntity> root = query.from(ReviewEntity.class);
+        List<Selection<?>> selections = columns.stream()
+            .<Selection<?>>map(column -> root.get(column).alias(column))
+            .toList();
+        query.multiselect(selections)
+            .where(
+                cb.equal(root.get("productId"), productId),
+                cb.greaterThan(root.get("reviewId"), after))
+            .orderBy(cb.asc(root.get("reviewId")));
+
+        return withTimeout(entityManager.createQuery(query).setMaxResults(limit), deadline).getResultList().stream()
+            .map(tuple -> new ReviewView(
+                productId,
+                tuple.get("reviewId", Integer.class),
+                stringOrNull(tuple, columns, "author"),
+                stringOrNull(tuple, columns, "subject"),
+                stringOrNull(tuple, columns, "content"),
+                0
+            ))
+            .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewView> findByProductIdIn(Collection<Integer> productIds, Optional<Deadline> deadline) {
+        TypedQuery<ReviewView> query = entityManager.createQuery(
+                "SELECT new msa.lime1st.review.infrastructure.persistence.ReviewView("
+                    + "r.productId, r.reviewId, r.author, r.subject, r.content, r.version) "
+                    + "FROM ReviewEntity r WHERE r.productId IN :productIds ORDER BY r.productId, r.reviewId",
+                ReviewView.class)
+            .setParameter("productIds", productIds);
+        return withTimeout(query, deadline).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<ReviewEntity> insertAll(List<ReviewEntity> entities) {
+        // id 는 pooled sequence 에서 allocationSize 개씩 미리 받아 오므로 persist() 는 insert 를 바로 실행하지 않는다.
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entities;
+    }
+
+    private static <T> TypedQuery<T> withTimeout(TypedQuery<T> query, Optional<Deadline> deadline) {
+        // jakarta.persistence.query.timeout(ms) 는 초 단위로 반올림되어 1초 미만이면 timeout 이 적용되지 않으므로 초 단위 hint 를 사용한다.
+        deadline.ifPresent(d -> query.setHint(HibernateHints.HINT_TIMEOUT,
+            (int) Math.max(1, (d.remaining().toMillis() + 999) / 1000)));
+        return query;
+    }
+
+    private static String stringOrNull(Tuple tuple, Set<String> columns, String column) {
+        return columns.contains(column) ? tuple.get(column, String.class) : null;
+    }
+}
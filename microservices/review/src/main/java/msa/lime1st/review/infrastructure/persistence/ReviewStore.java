@@ -0,0 +1,49 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * reviews 테이블 접근. 프로필로 구현을 선택한다.
+ * <p>
+ * JpaReviewStore   - 기본. 블로킹 JPA repository 를 jdbcScheduler 에서 실행한다.
+ * R2dbcReviewStore - r2dbc 프로필. 드라이버에서 읽는 대로 행을 내보내며 스레드 분기가 없다.
+ * <p>
+ * Reactor context 에 Deadline 이 있으면 쿼리를 시작하기 전에 확인하고, 남은 시간이 지나면 쿼리를 취소하고
+ * DeadlineExceededException 으로 끝낸다. JPA 는 쿼리마다 남은 시간을 JDBC query timeout 으로 지정하고,
+ * R2DBC 는 DeadlineFilter 의 timeout 으로 구독이 취소되면 쿼리도 취소된다. 중복 키는 DataIntegrityViolationException 으로 끝낸다.
+ * <p>
+ * 조회는 entity 대신 ReviewView 로 읽는다.
+ */
+public interface ReviewStore {
+
+    Mono<ReviewEntity> save(ReviewEntity entity);
+
+    /**
+     * 하나의 트랜잭션에서 저장하므로 일부만 저장되는 일은 없다.
+     */
+    Flux<ReviewEntity> saveAll(List<ReviewEntity> entities);
+
+    /**
+     * reviewId 순서로 fetchSize 개씩 페이지로 나눠 읽으며 내보낸다(ReviewPages). 목록 전체를 메모리에 모으지 않고,
+     * 클라이언트가 느려도 페이지 사이에는 DB connection 을 붙잡고 있지 않는다.
+     */
+    Flux<ReviewView> findByProductId(int productId);
+
+    /**
+     * reviewId 가 after 보다 큰 review 를 reviewId 순서로 최대 limit 개 읽는다.
+     */
+    Flux<ReviewView> findByProductId(int productId, int after, int limit);
+
+    /**
+     * 지정한 필드만 읽는다. productId 와 reviewId 는 항상 읽고, 읽지 않은 필드는 null 이다.
+     * findByProductId(int) 처럼 reviewId 순서로 fetchSize 개씩 페이지로 나눠 읽는다.
+     */
+    Flux<ReviewView> findByProductId(int productId, Collection<String> fields);
+
+    Flux<ReviewView> findByProductIdIn(Collection<Integer> productIds);
+
+    Mono<Void> deleteByProductId(int productId);
+}
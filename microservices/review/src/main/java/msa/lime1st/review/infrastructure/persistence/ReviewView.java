@@ -0,0 +1,16 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+/**
+ * review 조회용 projection. SELECT 한 컬럼을 entity 대신 바로 담는다.
+ * <p>
+ * persistence context 에 등록되지 않으므로 snapshot 과 dirty checking 비용이 없고, ReviewResponse 와 같은 모양이라 그대로 변환된다.
+ */
+public record ReviewView(
+    int productId,
+    int reviewId,
+    String author,
+    String subject,
+    String content,
+    int version
+) {
+}
@@ -1,42 +1,43 @@
 package msa.lime1st.review.presentation;
 
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import msa.lime1st.api.core.review.ReviewApi;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.review.infrastructure.persistence.ReviewStore;
 import msa.lime1st.util.exception.InvalidInputException;
-import msa.lime1st.review.infrastructure.persistence.ReviewEntity;
-import msa.lime1st.review.infrastructure.persistence.ReviewRepository;
 import msa.lime1st.util.http.ApiUtil;
+import msa.lime1st.util.http.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Scheduler;
 
 @RestController
 public class ReviewControllerImpl implements ReviewApi {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReviewControllerImpl.class);
 
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("reviewId", "author", "subject", "content");
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ApiUtil apiUtil;
-    private final Scheduler jdbcScheduler;
     private final ReviewMapper mapper;
-    private final ReviewRepository repository;
+    private final ReviewStore store;
 
     public ReviewControllerImpl(
         ApiUtil apiUtil,
-        Scheduler jdbcScheduler,
         ReviewMapper mapper,
-        ReviewRepository repository
+        ReviewStore store
     ) {
         this.apiUtil = apiUtil;
-        this.jdbcScheduler = jdbcScheduler;
         this.mapper = mapper;
-        this.repository = repository;
+        this.store = store;
     }
 
     @Override
@@ -45,12 +46,39 @@ public class ReviewControllerImpl implements ReviewApi {
         if (request.productId() < 1) {
             throw new InvalidInputException("Invalid productId: " + request.productId());
         }
-        // review 는 product, recommendation 과 달리 mysql 을 사용하고, repository 가 reactive 가 아니다.
-        // internalCreateReview(): 이전 블로킹코드 메소드를 Mono.fromCallable() 메서드를 사용해 Mono 객체로 감싸고 있다.
-        // subscribeOn() 메서드를 사용해 jdbcScheduler 의 스레드 풀에서 블로킹 코드를 실행한다.
-        // 즉 스레드 분기가 일어난다.
-        return Mono.fromCallable(() -> internalCreateReview(request))
-            .subscribeOn(jdbcScheduler);
+        // review 는 product, recommendation 과 달리 mysql 을 사용한다.
+        // 기본(JPA) 모드에서는 store 가 블로킹 repository 를 jdbcScheduler 의 스레드에서 실행하고,
+        // r2dbc 프로필에서는 드라이버가 non-blocking 으로 처리한다.
+        return store.save(mapper.requestToEntity(request))
+            .log(LOG.getName(), Level.FINE)
+            .doOnNext(entity -> LOG.debug(
+                "createReview: created a review entity: {}/{}",
+                request.productId(),
+                request.reviewId()))
+            .onErrorMap(
+                DataIntegrityViolationException.class,
+                dive -> new InvalidInputException(
+                    "Duplicate key, Product Id: " + request.productId() +
+                        ", Review Id: " + request.reviewId()))
+            .map(mapper::entityToResponse);
+    }
+
+    @Override
+    public Flux<ReviewResponse> postReviews(List<ReviewRequest> requests) {
+
+        if (requests.stream().anyMatch(request -> request.productId() < 1)) {
+            throw new InvalidInputException("Invalid productId in: " + requests);
+        }
+
+        // 하나의 트랜잭션에서 저장되므로 일부만 저장되는 일은 없다.
+        return store.saveAll(mapper.requestListToEntityList(requests))
+            .log(LOG.getName(), Level.FINE)
+            .onErrorMap(
+                DataIntegrityViolationException.class,
+                dive -> new InvalidInputException(
+                    "Duplicate key, Product Id: " + requests.get(0).productId() +
+                        ", Review Ids: " + requests.stream().map(ReviewRequest::reviewId).toList()))
+            .map(mapper::entityToResponse);
     }
 
     @Override
@@ -62,60 +90,86 @@ public class ReviewControllerImpl implements ReviewApi {
 
         LOG.info("Will get reviews for product with id={}", productId);
 
-        return Mono.fromCallable(() -> internalGetReviews(productId))
-            .flatMapMany(Flux::fromIterable)
+        // 목록 전체로 ETag 를 만들려면 모든 review 를 모아야 하므로 streaming 이 의미가 없어진다.
+        // ETag 는 크기가 limit 으로 제한되는 페이지 조회(after, limit)에만 붙인다.
+        return store.findByProductId(productId)
             .log(LOG.getName(), Level.FINE)
-            .subscribeOn(jdbcScheduler);
+            .map(mapper::viewToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()));
     }
 
     @Override
-    public Mono<Void> deleteReviews(int productId) {
+    public Flux<ReviewResponse> getReviews(int productId, Integer after, int limit) {
 
         if (productId < 1) {
             throw new InvalidInputException("Invalid productId: " + productId);
         }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Invalid limit: " + limit);
+        }
+
+        LOG.info("Will get reviews for product with id={}, after={}, limit={}", productId, after, limit);
 
-        return Mono.fromRunnable(() -> internalDeleteReviews(productId))
-            .subscribeOn(jdbcScheduler)
-            .then();
+        return store.findByProductId(productId, after == null ? Integer.MIN_VALUE : after, limit)
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::viewToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()))
+            .transform(responses -> ETags.checkNotModified(responses, reviews ->
+                ETags.of("review", productId, after, limit, reviews.stream()
+                    .map(r -> r.withServiceAddress(null))
+                    .toList())));
     }
 
-    private ReviewResponse internalCreateReview(ReviewRequest request) {
-        try {
-            ReviewEntity entity = mapper.requestToEntity(request);
-            ReviewEntity newEntity = repository.save(entity);
+    @Override
+    public Flux<ReviewResponse> getReviews(int productId, List<String> fields) {
 
-            LOG.debug(
-                "createReview: created a review entity: {}/{}",
-                request.productId(),
-                request.reviewId());
-            return mapper.entityToResponse(newEntity);
-        } catch (DataIntegrityViolationException dive) {
-            throw new InvalidInputException(
-                "Duplicate key, Product Id: " + request.productId() +
-                    ", Review Id: " + request.reviewId());
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
         }
-    }
+        fields.stream()
+            .filter(field -> !SELECTABLE_FIELDS.contains(field))
+            .findFirst()
+            .ifPresent(field -> {
+                throw new InvalidInputException("Invalid field: " + field);
+            });
 
-    private List<ReviewResponse> internalGetReviews(int productId) {
+        LOG.info("Will get reviews for product with id={}, fields={}", productId, fields);
 
-        List<ReviewEntity> entityList = repository.findByProductId(productId);
-        List<ReviewResponse> responseList = mapper.entityListToResponseList(entityList);
+        return store.findByProductId(productId, fields)
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::viewToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()));
+    }
 
-        List<ReviewResponse> list = responseList.stream()
-            .map(r -> r.withServiceAddress(apiUtil.getServiceAddress()))
-            .toList();
+    @Override
+    public Flux<ReviewResponse> getReviewsByProductIds(List<Integer> productIds) {
 
-        LOG.debug("/reviews response size: {}", list.size());
+        if (productIds.stream().anyMatch(productId -> productId == null || productId < 1)) {
+            throw new InvalidInputException("Invalid productIds: " + productIds);
+        }
 
-        return list;
+        LOG.info("Will get reviews for {} products", productIds.size());
+
+        return store.findByProductIdIn(productIds)
+            .log(LOG.getName(), Level.FINE)
+            .map(mapper::viewToResponse)
+            .map(response ->
+                response.withServiceAddress(apiUtil.getServiceAddress()));
     }
 
-    private void internalDeleteReviews(int productId) {
+    @Override
+    public Mono<Void> deleteReviews(int productId) {
+
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
 
         LOG.debug("deleteReviews: tries to delete reviews for the product with productId: {}",
             productId);
 
-        repository.deleteAll(repository.findByProductId(productId));
+        return store.deleteByProductId(productId);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.core.review.ReviewResponse;
 import msa.lime1st.review.infrastructure.persistence.ReviewEntity;
+import msa.lime1st.review.infrastructure.persistence.ReviewView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -17,6 +18,12 @@ public interface ReviewMapper {
     })
     ReviewResponse entityToResponse(ReviewEntity entity);
 
+    @Mappings({
+        @Mapping(target = "serviceAddress", ignore = true),
+        @Mapping(target = "withServiceAddress", ignore = true)
+    })
+    ReviewResponse viewToResponse(ReviewView view);
+
     @Mappings({
         @Mapping(target = "id", ignore = true),
         @Mapping(target = "version", ignore = true)
@@ -0,0 +1,20 @@
+-- r2dbc 프로필에서 사용하는 스키마. JPA(ddl-auto) 가 만드는 테이블과 같으며, 이미 있으면 그대로 둔다.
+CREATE TABLE IF NOT EXISTS reviews (
+    id INT NOT NULL,
+    version INT NOT NULL,
+    product_id INT NOT NULL,
+    review_id INT NOT NULL,
+    author VARCHAR(255),
+    subject VARCHAR(255),
+    content VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT reviews_unique_idx UNIQUE (product_id, review_id)
+);
+
+-- ReviewEntity.id 의 sequence. Hibernate 가 MySQL 에서 만드는 테이블과 같다.
+CREATE TABLE IF NOT EXISTS review_entity_seq (
+    next_val BIGINT
+);
+
+INSERT INTO review_entity_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM review_entity_seq);
@@ -0,0 +1,193 @@
+package msa.lime1st.review;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import msa.lime1st.review.infrastructure.config.SchedulerConfig;
+import msa.lime1st.util.benchmark.Benchmark;
+import msa.lime1st.util.benchmark.BenchmarkReport;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * jdbcScheduler 의 bounded-elastic 모드와 virtual 모드 비교.
+ * <p>
+ * 느린 MySQL(SELECT SLEEP) 에 connection pool 크기보다 많은 요청을 동시에 보낸다.
+ * bounded-elastic 은 threadPoolSize 만큼만 동시에 실행하고 나머지는 대기열에서 기다리다 대기열이 차면 거절한다.
+ * virtual 은 pool 크기만큼 동시에 실행하고 나머지는 connection 을 기다린다.
+ * <p>
+ * benchmark 는 MySQL 컨테이너가 필요하다.
+ * BENCHMARK=true ./gradlew :microservices:review:test --tests '*JdbcSchedulerBenchmarkTests' -i
+ */
+class JdbcSchedulerBenchmarkTests {
+
+    private static final int THREAD_POOL_SIZE = 10;
+    private static final int TASK_QUEUE_SIZE = 100;
+    private static final int CONNECTION_POOL_SIZE = 20;
+    private static final double QUERY_SECONDS = 0.05;
+    private static final int[] CONCURRENCY = {10, 50, 100, 200};
+    private static final int REQUESTS = 2_000;
+
+    @Test
+    void virtualModeIsLimitedOnlyByConnectionPool() {
+        // 작은 pool 로 느린 쿼리를 흉내 낸다.
+        Semaphore connections = new Semaphore(5);
+        int tasks = 20;
+
+        Result bounded = submit(new SchedulerConfig(2, 4, "bounded-elastic").jdbcScheduler(new SimpleMeterRegistry()),
+            tasks, () -> slowQuery(connections));
+        Result virtual = submit(new SchedulerConfig(2, 4, "virtual").jdbcScheduler(new SimpleMeterRegistry()),
+            tasks, () -> slowQuery(connections));
+
+        // 스레드마다 대기열이 4개이므로 스레드 2개가 받을 수 있는 작업보다 많으면 거절된다.
+        assertTrue(bounded.rejected() > 0);
+        assertEquals(tasks, bounded.completed() + bounded.rejected());
+        assertEquals(tasks, virtual.completed());
+        assertEquals(0, virtual.rejected());
+    }
+
+    @Test
+    void reportsPendingTasks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Scheduler scheduler = new SchedulerConfig(2, 4, "bounded-elastic").jdbcScheduler(registry);
+
+        submit(scheduler, 4, () -> sleep(10));
+
+        assertEquals(4.0, registry.get("review.jdbc.scheduler.tasks.completed").tag("mode", "bounded-elastic").timer().count());
+        assertTrue(registry.find("review.jdbc.scheduler.tasks.pending").tag("mode", "bounded-elastic").longTaskTimer() != null);
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        SchedulerConfig config = new SchedulerConfig(2, 4, "platform");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        assertThrows(IllegalArgumentException.class, () -> config.jdbcScheduler(registry));
+    }
+
+    @Benchmark
+    void benchmark() {
+        try (MySQLContainer<?> mysql = new MySQLContainer<>("mysql:latest");
+             BenchmarkReport report = BenchmarkReport.of("jdbc-scheduler", "%-16s %6s %12s %10s %10s %10s %10s",
+                 "mode", "conc", "requests/s", "p50 ms", "p99 ms", "max ms", "rejected")) {
+            mysql.start();
+
+            for (int concurrency : CONCURRENCY) {
+                for (String mode : new String[]{"bounded-elastic", "virtual"}) {
+                    try (HikariDataSource dataSource = dataSource(mysql)) {
+                        measure(report, mode, concurrency, dataSource);
+                    }
+                }
+            }
+        }
+    }
+
+    private void measure(BenchmarkReport report, String mode, int concurrency, HikariDataSource dataSource) {
+        Scheduler scheduler = new SchedulerConfig(THREAD_POOL_SIZE, TASK_QUEUE_SIZE, mode)
+            .jdbcScheduler(new SimpleMeterRegistry());
+        try {
+            Runnable query = () -> {
+                try (Connection connection = dataSource.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT SLEEP(" + QUERY_SECONDS + ")");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+
+            run(scheduler, concurrency, concurrency * 2, query);
+
+            long start = System.nanoTime();
+            Result result = run(scheduler, concurrency, REQUESTS, query);
+            long elapsed = System.nanoTime() - start;
+
+            long[] latencies = Arrays.stream(result.latencies()).filter(latency -> latency > 0).sorted().toArray();
+            report.row(mode, concurrency,
+                result.completed() * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[(int) (latencies.length * 0.99)]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length - 1]),
+                result.rejected());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    private static Result submit(Scheduler scheduler, int tasks, Runnable task) {
+        try {
+            return run(scheduler, tasks, tasks, task);
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * 컨트롤러와 같이 Mono.fromCallable(...).subscribeOn(jdbcScheduler) 로 실행한다.
+     */
+    private static Result run(Scheduler scheduler, int concurrency, int requests, Runnable task) {
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Flux.range(0, requests)
+            .flatMap(i -> {
+                long start = System.nanoTime();
+                return Mono.fromRunnable(task)
+                    .subscribeOn(scheduler)
+                    .doOnSuccess(ignored -> {
+                        latencies[i] = System.nanoTime() - start;
+                        completed.incrementAndGet();
+                    })
+                    .onErrorResume(e -> {
+                        rejected.incrementAndGet();
+                        return Mono.empty();
+                    });
+            }, concurrency)
+            .blockLast(Duration.ofMinutes(5));
+        return new Result(completed.get(), rejected.get(), latencies);
+    }
+
+    private static void slowQuery(Semaphore connections) {
+        connections.acquireUninterruptibly();
+        try {
+            sleep(200);
+        } finally {
+            connections.release();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HikariDataSource dataSource(MySQLContainer<?> mysql) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(mysql.getJdbcUrl());
+        config.setUsername(mysql.getUsername());
+        config.setPassword(mysql.getPassword());
+        config.setMaximumPoolSize(CONNECTION_POOL_SIZE);
+        config.setConnectionTimeout(5000);
+        return new HikariDataSource(config);
+    }
+
+    private record Result(int completed, int rejected, long[] latencies) {
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.event.Event;
@@ -27,7 +29,9 @@ import reactor.core.publisher.Mono;
     properties = {
         "spring.cloud.stream.defaultBinder=rabbit",
         "logging.level.msa.lime1st=DEBUG",
-        "spring.jpa.hibernate.ddl-auto=update"
+        "spring.jpa.hibernate.ddl-auto=update",
+        // review 전체 조회가 여러 페이지로 나뉘어도 순서대로 모두 읽는지 확인한다.
+        "app.review.fetchSize=2"
     })
 class ReviewApplicationTests extends MySqlTestBase {
 
@@ -70,6 +74,63 @@ class ReviewApplicationTests extends MySqlTestBase {
             .jsonPath("$[2].reviewId").isEqualTo(3);
     }
 
+    @Test
+    void getReviewsPage() {
+
+        int productId = 1;
+
+        sendBulkCreateReviewEvent(productId, 1, 2, 3, 4, 5);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&limit=2", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].reviewId").isEqualTo(1)
+            .jsonPath("$[1].reviewId").isEqualTo(2);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&after=2&limit=2", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].reviewId").isEqualTo(3)
+            .jsonPath("$[1].reviewId").isEqualTo(4);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&after=4&limit=2", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$[0].reviewId").isEqualTo(5);
+    }
+
+    @Test
+    void getReviewsWithFieldsReadsAllPages() {
+
+        int productId = 1;
+
+        // fetchSize(2) 보다 많은 review 를 페이지로 나눠 reviewId 순서로 모두 읽는다.
+        sendBulkCreateReviewEvent(productId, 5, 3, 1, 4, 2);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&fields=author", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(5)
+            .jsonPath("$[0].reviewId").isEqualTo(1)
+            .jsonPath("$[4].reviewId").isEqualTo(5)
+            .jsonPath("$[4].subject").isEmpty();
+    }
+
+    @Test
+    void getReviewsPageInvalidLimit() {
+
+        getAndVerifyReviewsByProductId("?productId=1&limit=0", HttpStatus.UNPROCESSABLE_ENTITY)
+            .jsonPath("$.message").isEqualTo("Invalid limit: 0");
+    }
+
+    @Test
+    void createReviewsWithBulkEvent() {
+
+        int productId = 1;
+
+        sendBulkCreateReviewEvent(productId, 1, 2, 3);
+
+        assertEquals(3, repository.findByProductId(productId).size());
+
+        getAndVerifyReviewsByProductId(productId)
+            .jsonPath("$.length()").isEqualTo(3);
+    }
+
     @Test
     void duplicateError() {
 
@@ -170,6 +231,20 @@ class ReviewApplicationTests extends MySqlTestBase {
         messageProcessor.accept(event);
     }
 
+    private void sendBulkCreateReviewEvent(int productId, int... reviewIds) {
+        List<ReviewRequest> reviews = Arrays.stream(reviewIds)
+            .mapToObj(reviewId -> ReviewRequest.of(
+                productId,
+                reviewId,
+                "Author " + reviewId,
+                "Subject " + reviewId,
+                "Content " + reviewId,
+                "SA"
+            ))
+            .toList();
+        messageProcessor.accept(Event.createBulk(productId, reviews));
+    }
+
     private void sendDeleteReviewEvent(int productId) {
         Event<Integer, ReviewRequest> event = Event.create(
             Type.DELETE,
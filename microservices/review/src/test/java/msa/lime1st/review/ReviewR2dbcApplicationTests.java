@@ -0,0 +1,234 @@
+package msa.lime1st.review;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import msa.lime1st.api.core.review.ReviewRequest;
+import msa.lime1st.api.event.Event;
+import msa.lime1st.api.event.Event.Type;
+import msa.lime1st.review.infrastructure.persistence.R2dbcReviewStore;
+import msa.lime1st.review.infrastructure.persistence.ReviewEntity;
+import msa.lime1st.review.infrastructure.persistence.ReviewStore;
+import msa.lime1st.util.exception.InvalidInputException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * r2dbc 프로필. MySQL 대신 H2 를 MySQL 호환 모드의 R2DBC 로 사용한다.
+ */
+@SpringBootTest(
+    webEnvironment = RANDOM_PORT,
+    properties = {
+        "spring.cloud.stream.defaultBinder=rabbit",
+        "logging.level.msa.lime1st=DEBUG",
+        "spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+        "spring.r2dbc.url=r2dbc:h2:mem:///review-db;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema-r2dbc.sql",
+        // review 전체 조회가 여러 페이지로 나뉘어도 순서대로 모두 읽는지 확인한다.
+        "app.review.fetchSize=2"
+    })
+@ActiveProfiles("r2dbc")
+class ReviewR2dbcApplicationTests {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReviewStore store;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private Consumer<Event<Integer, ReviewRequest>> messageProcessor;
+
+    @BeforeEach
+    void setupDb() {
+        databaseClient.sql("DELETE FROM reviews").then().block();
+    }
+
+    @Test
+    void usesR2dbcStore() {
+        assertEquals(R2dbcReviewStore.class, store.getClass());
+    }
+
+    @Test
+    void getReviewsByProductId() {
+
+        int productId = 1;
+
+        sendCreateReviewEvent(productId, 3);
+        sendCreateReviewEvent(productId, 1);
+        sendCreateReviewEvent(productId, 2);
+
+        assertEquals(3, count(productId));
+
+        getAndVerifyReviewsByProductId("?productId=" + productId, HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(3)
+            .jsonPath("$[2].productId").isEqualTo(productId)
+            .jsonPath("$[2].reviewId").isEqualTo(3)
+            .jsonPath("$[2].version").isEqualTo(0);
+    }
+
+    @Test
+    void getReviewsPage() {
+
+        int productId = 1;
+
+        sendBulkCreateReviewEvent(productId, 1, 2, 3, 4, 5);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&after=2&limit=2", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].reviewId").isEqualTo(3)
+            .jsonPath("$[1].reviewId").isEqualTo(4);
+    }
+
+    @Test
+    void getReviewsWithFields() {
+
+        int productId = 1;
+
+        sendCreateReviewEvent(productId, 1);
+
+        getAndVerifyReviewsByProductId("?productId=" + productId + "&fields=author", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$[0].reviewId").isEqualTo(1)
+            .jsonPath("$[0].author").isEqualTo("Author 1")
+            .jsonPath("$[0].subject").isEmpty();
+    }
+
+    @Test
+    void getReviewsByProductIds() {
+
+        sendCreateReviewEvent(1, 1);
+        sendCreateReviewEvent(2, 1);
+        sendCreateReviewEvent(3, 1);
+
+        getAndVerifyReviewsByProductId("?productIds=1,2", HttpStatus.OK)
+            .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void createReviewsWithBulkEvent() {
+
+        int productId = 1;
+
+        sendBulkCreateReviewEvent(productId, IntStream.rangeClosed(1, 120).toArray());
+
+        assertEquals(120, count(productId));
+    }
+
+    @Test
+    void bulkCreateIsAtomic() {
+
+        int productId = 1;
+
+        sendCreateReviewEvent(productId, 2);
+
+        assertThrows(InvalidInputException.class, () -> sendBulkCreateReviewEvent(productId, 1, 2, 3));
+
+        assertEquals(1, count(productId));
+    }
+
+    @Test
+    void allocatesUniqueIds() {
+
+        // allocationSize(50) 보다 많이 동시에 저장해 여러 범위를 할당받도록 한다.
+        List<ReviewEntity> saved = Flux.range(1, 200)
+            .flatMap(reviewId -> store.save(ReviewEntity.create(1, reviewId, "a", "s", "c")), 32)
+            .collectList()
+            .block();
+
+        Set<Integer> ids = saved.stream().map(ReviewEntity::getId).collect(Collectors.toSet());
+        assertEquals(200, ids.size());
+    }
+
+    @Test
+    void duplicateError() {
+
+        int productId = 1;
+        int reviewId = 1;
+
+        sendCreateReviewEvent(productId, reviewId);
+
+        InvalidInputException thrown = assertThrows(
+            InvalidInputException.class,
+            () -> sendCreateReviewEvent(productId, reviewId),
+            "Expected a InvalidInputException here!");
+        assertEquals("Duplicate key, Product Id: 1, Review Id: 1", thrown.getMessage());
+
+        assertEquals(1, count(productId));
+    }
+
+    @Test
+    void deleteReviews() {
+
+        int productId = 1;
+
+        sendCreateReviewEvent(productId, 1);
+        assertEquals(1, count(productId));
+
+        sendDeleteReviewEvent(productId);
+        assertEquals(0, count(productId));
+
+        sendDeleteReviewEvent(productId);
+    }
+
+    private long count(int productId) {
+        return store.findByProductId(productId).count().block();
+    }
+
+    private WebTestClient.BodyContentSpec getAndVerifyReviewsByProductId(String query, HttpStatus expectedStatus) {
+        return client.get()
+            .uri("/review" + query)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isEqualTo(expectedStatus)
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody();
+    }
+
+    private void sendCreateReviewEvent(int productId, int reviewId) {
+        messageProcessor.accept(Event.create(Type.CREATE, productId, review(productId, reviewId)));
+    }
+
+    private void sendBulkCreateReviewEvent(int productId, int... reviewIds) {
+        List<ReviewRequest> reviews = Arrays.stream(reviewIds)
+            .mapToObj(reviewId -> review(productId, reviewId))
+            .toList();
+        messageProcessor.accept(Event.createBulk(productId, reviews));
+    }
+
+    private void sendDeleteReviewEvent(int productId) {
+        messageProcessor.accept(Event.create(Type.DELETE, productId, null));
+    }
+
+    private static ReviewRequest review(int productId, int reviewId) {
+        return ReviewRequest.of(
+            productId,
+            reviewId,
+            "Author " + reviewId,
+            "Subject " + reviewId,
+            "Content " + reviewId,
+            "SA"
+        );
+    }
+}
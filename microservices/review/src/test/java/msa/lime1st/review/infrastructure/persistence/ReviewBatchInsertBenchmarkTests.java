@@ -0,0 +1,87 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import msa.lime1st.util.benchmark.Benchmark;
+import msa.lime1st.util.benchmark.BenchmarkReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * review 저장 방식 비교. 초당 저장한 행 수를 출력한다.
+ * <p>
+ * save      - 행마다 repository.save() 를 호출한다. 호출마다 트랜잭션을 commit 한다.
+ * saveAll   - repository.saveAll(). 하나의 트랜잭션이지만 insert 를 하나씩 보낸다.
+ * insertAll - repository.insertAll(). insert 를 batch_size 개씩 JDBC batch 로 보내고,
+ *             rewriteBatchedStatements 로 여러 행의 INSERT 하나가 된다.
+ * <p>
+ * benchmark 는 MySQL 컨테이너가 필요하므로 클래스 전체를 BENCHMARK=true 일 때만 실행한다.
+ * BENCHMARK=true ./gradlew :microservices:review:test --tests '*ReviewBatchInsertBenchmarkTests' -i
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=true"
+})
+@Transactional(propagation = NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Benchmark
+class ReviewBatchInsertBenchmarkTests extends MySqlTestBase {
+
+    private static final int WARMUP_ROWS = 2_000;
+    private static final int MEASURED_ROWS = 10_000;
+
+    @Autowired
+    private ReviewRepository repository;
+
+    private int productId;
+
+    @BeforeEach
+    void setupDb() {
+        repository.deleteAllInBatch();
+    }
+
+    @Benchmark
+    void benchmark() {
+        try (BenchmarkReport report = BenchmarkReport.of("review-batch-insert", "%-10s %10s %12s",
+            "method", "rows", "rows/s")) {
+            measure(report, "save", entities -> entities.forEach(repository::save));
+            measure(report, "saveAll", repository::saveAll);
+            measure(report, "insertAll", repository::insertAll);
+        }
+    }
+
+    private void measure(BenchmarkReport report, String name, Insert insert) {
+        insert.run(entities(WARMUP_ROWS));
+
+        List<ReviewEntity> entities = entities(MEASURED_ROWS);
+        long start = System.nanoTime();
+        insert.run(entities);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(MEASURED_ROWS, repository.findByProductId(productId).size());
+        report.row(name, MEASURED_ROWS, MEASURED_ROWS * TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+    private List<ReviewEntity> entities(int rows) {
+        int id = ++productId;
+        return IntStream.rangeClosed(1, rows)
+            .mapToObj(reviewId -> ReviewEntity.create(id, reviewId,
+                "author " + reviewId, "subject " + reviewId, "content " + reviewId))
+            .toList();
+    }
+
+    @FunctionalInterface
+    private interface Insert {
+
+        void run(List<ReviewEntity> entities);
+    }
+}
@@ -0,0 +1,120 @@
+package msa.lime1st.review.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import msa.lime1st.api.core.review.ReviewResponse;
+import msa.lime1st.review.presentation.ReviewMapper;
+import msa.lime1st.util.benchmark.Benchmark;
+import msa.lime1st.util.benchmark.BenchmarkReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * product 의 review 목록 조회 비교. 조회 한 번의 지연 시간과 현재 스레드가 할당한 byte 수를 출력한다.
+ * <p>
+ * entity     - findByProductId(). ReviewEntity 를 만들어 persistence context 에 등록하고 MapStruct 로 ReviewResponse 로 복사한다.
+ * projection - findPageByProductId(). ReviewView 로 바로 읽고 ReviewResponse 로 변환한다.
+ * <p>
+ * projection 쿼리가 reviews_unique_idx 의 범위 검색(type: range)으로 읽는지 EXPLAIN 결과도 출력한다.
+ * <p>
+ * benchmark 는 MySQL 컨테이너가 필요하므로 클래스 전체를 BENCHMARK=true 일 때만 실행한다.
+ * BENCHMARK=true ./gradlew :microservices:review:test --tests '*ReviewReadBenchmarkTests' -i
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=true"
+})
+@Transactional(propagation = NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Benchmark
+class ReviewReadBenchmarkTests extends MySqlTestBase {
+
+    private static final int PRODUCT_ID = 1;
+    private static final int[] REVIEWS_PER_PRODUCT = {10, 100, 1_000};
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private final ReviewMapper mapper = Mappers.getMapper(ReviewMapper.class);
+
+    @Autowired
+    private ReviewRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setupDb() {
+        repository.deleteAllInBatch();
+    }
+
+    @Benchmark
+    void benchmark() {
+        try (BenchmarkReport report = BenchmarkReport.of("review-read", "%-11s %8s %10s %10s %14s",
+            "read", "reviews", "p50 us", "p99 us", "bytes/op")) {
+            run(report);
+        }
+    }
+
+    private void run(BenchmarkReport report) {
+        int inserted = 0;
+        for (int reviews : REVIEWS_PER_PRODUCT) {
+            repository.insertAll(IntStream.rangeClosed(inserted + 1, reviews)
+                .mapToObj(reviewId -> ReviewEntity.create(PRODUCT_ID, reviewId,
+                    "author " + reviewId, "subject " + reviewId,
+                    "review content that is a bit longer than the subject " + reviewId))
+                .toList());
+            inserted = reviews;
+
+            measure(report, "entity", reviews, () ->
+                mapper.entityListToResponseList(repository.findByProductId(PRODUCT_ID)));
+            measure(report, "projection", reviews, () ->
+                repository.findPageByProductId(PRODUCT_ID, Integer.MIN_VALUE, reviews, Optional.empty()).stream()
+                    .map(mapper::viewToResponse)
+                    .toList());
+        }
+
+        jdbcTemplate.queryForList("EXPLAIN SELECT product_id, review_id, author, subject, content, version"
+                + " FROM reviews WHERE product_id = ? AND review_id > ? ORDER BY review_id LIMIT ?",
+                PRODUCT_ID, Integer.MIN_VALUE, 100)
+            .forEach(row -> report.note("EXPLAIN projection: type = " + row.get("type") + ", key = " + row.get("key")
+                + ", Extra = " + row.get("Extra")));
+    }
+
+    private void measure(BenchmarkReport report, String name, int reviews, Supplier<List<ReviewResponse>> read) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(reviews, read.get().size());
+        }
+
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            read.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+        Arrays.sort(latencies);
+        report.row(name, reviews,
+            TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+            TimeUnit.NANOSECONDS.toMicros(latencies[(int) (latencies.length * 0.99)]),
+            allocated / MEASURED_ITERATIONS);
+    }
+}
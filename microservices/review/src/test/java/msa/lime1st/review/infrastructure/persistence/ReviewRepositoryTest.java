@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,6 +73,65 @@ class ReviewRepositoryTest extends MySqlTestBase {
         assertEqualsReview(savedEntity, entityList.get(0));
     }
 
+    @Test
+    void getByProductIdWithFields() {
+        List<ReviewView> viewList = repository.findPageByProductId(
+            savedEntity.getProductId(), List.of("author"), Integer.MIN_VALUE, 10, Optional.empty());
+
+        assertThat(viewList, hasSize(1));
+        ReviewView view = viewList.get(0);
+        assertEquals(savedEntity.getReviewId(), view.reviewId());
+        assertEquals(savedEntity.getAuthor(), view.author());
+        assertNull(view.subject());
+        assertNull(view.content());
+    }
+
+    @Test
+    void getPageByProductId() {
+        repository.insertAll(IntStream.rangeClosed(3, 6)
+            .mapToObj(reviewId -> ReviewEntity.create(1, reviewId, "a", "s", "c"))
+            .toList());
+
+        List<ReviewView> viewList = repository.findPageByProductId(1, 3, 2, Optional.empty());
+
+        assertEquals(List.of(4, 5), viewList.stream().map(ReviewView::reviewId).toList());
+    }
+
+    @Test
+    void getByProductIdIn() {
+        repository.save(ReviewEntity.create(2, 2, "a", "s", "c"));
+        repository.save(ReviewEntity.create(3, 2, "a", "s", "c"));
+
+        List<ReviewView> viewList = repository.findByProductIdIn(
+            List.of(savedEntity.getProductId(), 2), Optional.empty());
+
+        assertThat(viewList, hasSize(2));
+        assertEquals(new ReviewView(1, 2, "a", "s", "c", 0), viewList.get(0));
+    }
+
+    @Test
+    void insertAll() {
+        List<ReviewEntity> entities = IntStream.rangeClosed(1, 120)
+            .mapToObj(reviewId -> ReviewEntity.create(2, reviewId, "a", "s", "c"))
+            .toList();
+
+        repository.insertAll(entities);
+
+        assertEquals(120, entities.stream().map(ReviewEntity::getId).distinct().count());
+        assertThat(repository.findByProductId(2), hasSize(120));
+    }
+
+    @Test
+    void insertAllDuplicateError() {
+        List<ReviewEntity> entities = List.of(
+            ReviewEntity.create(1, 3, "a", "s", "c"),
+            ReviewEntity.create(1, 2, "a", "s", "c"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> repository.insertAll(entities));
+
+        assertEquals(1, repository.count());
+    }
+
     @Test
     void duplicateError() {
         assertThrows(DataIntegrityViolationException.class, () -> {
@@ -7,6 +7,7 @@ import java.util.List;
 import msa.lime1st.api.core.review.ReviewRequest;
 import msa.lime1st.api.core.review.ReviewResponse;
 import msa.lime1st.review.infrastructure.persistence.ReviewEntity;
+import msa.lime1st.review.infrastructure.persistence.ReviewView;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
@@ -38,6 +39,21 @@ class ReviewMapperTest {
         assertNull(response.serviceAddress());
     }
 
+    @Test
+    void viewMapperTests() {
+
+        ReviewView view = new ReviewView(1, 2, "a", "s", "c", 3);
+
+        ReviewResponse response = mapper.viewToResponse(view);
+        assertEquals(view.productId(), response.productId());
+        assertEquals(view.reviewId(), response.reviewId());
+        assertEquals(view.author(), response.author());
+        assertEquals(view.subject(), response.subject());
+        assertEquals(view.content(), response.content());
+        assertEquals(view.version(), response.version());
+        assertNull(response.serviceAddress());
+    }
+
     @Test
     void mapperListTests() {
 
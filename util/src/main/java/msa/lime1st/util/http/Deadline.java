@@ -0,0 +1,62 @@
+package msa.lime1st.util.http;
+
+import java.time.Duration;
+import java.util.Optional;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * 요청을 보낸 쪽이 응답을 기다리는 시한.
+ * <p>
+ * 서비스 사이에는 남은 시간을 밀리초로 X-Request-Timeout-Ms 헤더에 담아 보낸다.
+ * 서버마다 시계가 다를 수 있으므로 절대 시각 대신 남은 시간을 보내고, 받은 쪽은 자신의 nanoTime 기준으로 다시 계산한다.
+ * 요청 처리 중에는 DeadlineFilter 가 Reactor context 에 넣어 둔 값을 사용한다.
+ */
+public record Deadline(long expiresAtNanos) {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final String CONTEXT_KEY = Deadline.class.getName();
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * 헤더 값이 없거나 숫자가 아니면 empty 를 반환한다.
+     */
+    public static Optional<Deadline> fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(after(Duration.ofMillis(Math.max(0, Long.parseLong(value.trim())))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<Deadline> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public static Context put(Context context, Deadline deadline) {
+        return context.put(CONTEXT_KEY, deadline);
+    }
+
+    public static Context remove(Context context) {
+        return context.delete(CONTEXT_KEY);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public String toHeaderValue() {
+        return Long.toString(remaining().toMillis());
+    }
+}
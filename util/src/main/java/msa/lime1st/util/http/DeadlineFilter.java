@@ -0,0 +1,50 @@
+package msa.lime1st.util.http;
+
+import msa.lime1st.util.exception.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 요청에 Deadline 헤더가 있으면 남은 시간이 지났을 때 요청 처리를 취소하고 504 로 응답한다.
+ * 항목을 하나씩 보내는 streaming 응답은 응답 전체에 시간 제한을 둘 수 없으므로 deadline 을 적용하지 않는다.
+ * <p>
+ * 호출한 쪽은 이미 기다리지 않으므로 남은 작업(Mongo 쿼리, 하위 서비스 호출, 재시도 대기)을 계속하지 않는다.
+ * 이미 시간이 지난 요청은 처리를 시작하지 않는다.
+ * Deadline 은 Reactor context 에 넣어 두어 하위 서비스 호출과 repository 에서 사용할 수 있게 한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter implements WebFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Deadline deadline = Deadline.fromHeader(exchange.getRequest().getHeaders().getFirst(Deadline.HEADER))
+            .orElse(null);
+        if (deadline == null || StreamingRequests.isStreaming(exchange.getRequest().getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        String path = exchange.getRequest().getPath().value();
+        if (deadline.isExpired()) {
+            LOG.debug("Rejects {} whose deadline has already passed", path);
+            return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+        }
+
+        // 처리 중에 발생한 다른 TimeoutException 을 deadline 초과로 바꾸지 않도록 timeout 의 fallback 으로 실패시킨다.
+        return chain.filter(exchange)
+            .timeout(deadline.remaining(), Mono.defer(() -> {
+                LOG.debug("Cancelled {} because its deadline has passed", path);
+                return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+            }))
+            .contextWrite(context -> Deadline.put(context, deadline));
+    }
+}
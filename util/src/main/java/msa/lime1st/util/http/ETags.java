@@ -0,0 +1,101 @@
+package msa.lime1st.util.http;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 응답 내용(serviceAddress 제외)과 저장소의 @Version 으로 만든 weak ETag 와 If-None-Match 조건부 GET 처리.
+ * <p>
+ * 삭제 후 다시 만들면 @Version 이 0 부터 다시 시작하므로 version 만으로는 이전 ETag 와 같아질 수 있다.
+ * 내용을 함께 넣어 다시 만든 항목의 내용이 다르면 ETag 도 달라지도록 한다.
+ * <p>
+ * 같은 version 이라도 응답 형식(JSON, Smile)과 serviceAddress 에 따라 본문의 byte 가 다르므로 strong ETag 가 아닌 weak ETag 를 쓴다.
+ * 형식이 Accept 로 정해지므로 Vary: Accept 를 함께 붙여 중간 캐시가 형식별로 저장하도록 한다.
+ * <p>
+ * ETag 가 If-None-Match 와 일치하면 304 를 설정하고 본문 없이 끝내므로 응답을 직렬화하지 않는다.
+ * ServerWebExchange 는 ExchangeContextFilter 가 Reactor context 에 넣어 둔 것을 사용한다.
+ */
+public final class ETags {
+
+    private static final int ETAG_BYTES = 16;
+
+    private ETags() {
+    }
+
+    /**
+     * parts 를 이어 붙인 문자열의 SHA-256 앞 16 byte 로 만든 weak ETag (W/"..." 형식).
+     * 항목은 serviceAddress 를 뺀 응답(record 의 모든 필드)을 넣어 항목이 추가, 삭제, 수정되거나 다시 만들어지면 값이 바뀌도록 한다.
+     */
+    public static String of(Object... parts) {
+        String value = Arrays.stream(parts)
+            .map(String::valueOf)
+            .collect(Collectors.joining(":"));
+        byte[] digest = sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + "\"";
+    }
+
+    /**
+     * 요청의 If-None-Match 가 etag 와 일치하면 304 를 설정하고 빈 Mono 를 반환한다. 일치하지 않으면 ETag 헤더를 붙여 body 를 반환한다.
+     */
+    public static <T> Mono<T> checkNotModified(String etag, T body) {
+        return Mono.deferContextual(context -> {
+            ServerWebExchange exchange = ServerWebExchangeContextFilter.getExchange(context).orElse(null);
+            if (exchange == null) {
+                return Mono.just(body);
+            }
+            varyOnAccept(exchange);
+            if (exchange.checkNotModified(etag)) {
+                return Mono.empty();
+            }
+            return Mono.just(body);
+        });
+    }
+
+    public static <T> Mono<T> checkNotModified(Mono<T> body, Function<T, String> etag) {
+        return body.flatMap(value -> checkNotModified(etag.apply(value), value));
+    }
+
+    /**
+     * 목록 전체로 ETag 를 만들어야 하므로 항목을 모은 뒤에 내보낸다.
+     * 항목을 하나씩 보내는 streaming 형식을 요청한 경우에는 ETag 없이 그대로 내보낸다.
+     */
+    public static <T> Flux<T> checkNotModified(Flux<T> body, Function<List<T>, String> etag) {
+        return Flux.deferContextual(context -> {
+            ServerWebExchange exchange = ServerWebExchangeContextFilter.getExchange(context).orElse(null);
+            if (exchange == null || StreamingRequests.isStreaming(exchange.getRequest().getHeaders())) {
+                return body;
+            }
+            varyOnAccept(exchange);
+            return body.collectList()
+                .flatMapMany(values -> exchange.checkNotModified(etag.apply(values))
+                    ? Flux.empty()
+                    : Flux.fromIterable(values));
+        });
+    }
+
+    private static void varyOnAccept(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
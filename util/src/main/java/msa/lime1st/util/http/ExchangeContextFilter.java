@@ -0,0 +1,12 @@
+package msa.lime1st.util.http;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+
+/**
+ * 컨트롤러의 Mono, Flux 안에서 ServerWebExchange 를 꺼낼 수 있도록 Reactor context 에 넣는다.
+ * API 인터페이스의 메서드 시그니처를 바꾸지 않고 ETags 가 응답 헤더와 상태를 다룰 때 사용한다.
+ */
+@Component
+public class ExchangeContextFilter extends ServerWebExchangeContextFilter {
+}
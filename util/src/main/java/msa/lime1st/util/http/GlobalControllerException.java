@@ -1,8 +1,10 @@
 package msa.lime1st.util.http;
 
 import msa.lime1st.util.exception.BadRequestException;
+import msa.lime1st.util.exception.DeadlineExceededException;
 import msa.lime1st.util.exception.InvalidInputException;
 import msa.lime1st.util.exception.NotFoundException;
+import msa.lime1st.util.exception.ServiceUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -57,6 +59,34 @@ public class GlobalControllerException {
         );
     }
 
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public HttpErrorInfo handleServiceUnavailableException(
+        ServerHttpRequest request,
+        ServiceUnavailableException ex
+    ) {
+
+        return createHttpErrorInfo(
+            HttpStatus.SERVICE_UNAVAILABLE,
+            request,
+            ex
+        );
+    }
+
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    @ExceptionHandler(DeadlineExceededException.class)
+    public HttpErrorInfo handleDeadlineExceededException(
+        ServerHttpRequest request,
+        DeadlineExceededException ex
+    ) {
+
+        return createHttpErrorInfo(
+            HttpStatus.GATEWAY_TIMEOUT,
+            request,
+            ex
+        );
+    }
+
     private HttpErrorInfo createHttpErrorInfo(
         HttpStatus httpStatus,
         ServerHttpRequest request,
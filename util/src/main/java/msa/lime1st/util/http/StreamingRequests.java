@@ -0,0 +1,24 @@
+package msa.lime1st.util.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Accept 의 첫 번째 형식으로 항목을 하나씩 보내는 streaming 응답(stream+*, NDJSON, SSE)을 요청했는지 판단한다.
+ * <p>
+ * streaming 응답은 전체를 모으거나(ETag) 응답 전체에 시간 제한(deadline)을 두면 streaming 의 의미가 없어지므로 제외한다.
+ */
+public final class StreamingRequests {
+
+    private StreamingRequests() {
+    }
+
+    public static boolean isStreaming(HttpHeaders requestHeaders) {
+        return requestHeaders.getAccept().stream()
+            .findFirst()
+            .map(type -> type.getSubtype().startsWith("stream+")
+                || type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                || type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM))
+            .orElse(false);
+    }
+}
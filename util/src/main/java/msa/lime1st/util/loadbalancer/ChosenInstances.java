@@ -0,0 +1,42 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cloud.client.ServiceInstance;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * 같은 요청을 여러 번 보낼 때(hedging) 앞선 요청이 간 인스턴스를 기록한다.
+ * <p>
+ * Reactor context 에 넣어 두면 LatencyAwareLoadBalancer 가 고른 인스턴스를 기록하고,
+ * 다음 요청에서는 다른 후보가 있는 한 기록된 인스턴스를 고르지 않는다.
+ * 느린 인스턴스로 같은 요청을 다시 보내면 hedging 의 의미가 없기 때문이다.
+ */
+public final class ChosenInstances {
+
+    private static final Class<ChosenInstances> KEY = ChosenInstances.class;
+
+    private final Set<String> instances = ConcurrentHashMap.newKeySet();
+
+    public static Context put(Context context, ChosenInstances chosen) {
+        return context.put(KEY, chosen);
+    }
+
+    public static Optional<ChosenInstances> from(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+
+    void add(ServiceInstance instance) {
+        instances.add(keyOf(instance));
+    }
+
+    boolean contains(ServiceInstance instance) {
+        return instances.contains(keyOf(instance));
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId().toLowerCase() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,21 @@
+package msa.lime1st.util.loadbalancer;
+
+/**
+ * actuator loadbalancer 엔드포인트로 보여 주는 인스턴스의 상태.
+ *
+ * @param latencyMillis    응답 시간 EWMA
+ * @param inflight         응답을 기다리는 요청 수
+ * @param errorRate        최근 오류율 (0 ~ 1)
+ * @param ejectedForMillis 제외된 경우 남은 제외 시간
+ * @param cost             인스턴스를 고를 때 비교하는 값. 작을수록 먼저 고른다
+ */
+public record InstanceScore(
+    String instance,
+    double latencyMillis,
+    int inflight,
+    double errorRate,
+    boolean ejected,
+    long ejectedForMillis,
+    long cost
+) {
+}
@@ -0,0 +1,242 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 서비스별, 인스턴스별 상태를 모으는 LoadBalancerLifecycle.
+ * <p>
+ * load balancer 가 인스턴스를 고른 뒤(onStartRequest)와 응답을 받은 뒤(onComplete)에 호출되어
+ * 처리 중인 요청 수, 응답 시간, 오류율을 갱신한다. 예외가 발생했거나 5xx 로 응답한 경우를 오류로 본다.
+ * 요청의 deadline 이 지나 중단된 경우(DeadlineExceededException, 504)는 인스턴스의 문제가 아니므로 오류로 보지 않는다.
+ * <p>
+ * @LoadBalanced WebClient 와 gateway 의 lb:// route 는 취소된 요청(TimeLimiter, hedging)에 대해 onComplete 를 호출하지 않고,
+ * CompletionContext 에도 취소를 나타내는 상태가 없다. abandonAfter 가 지나도록 응답이 없는 요청은 처리 중인 요청 수에서 뺀다.
+ * abandonAfter 는 client response timeout 과 요청 deadline 에 맞춰 취소되지 않은 요청이 끝날 수 있는 가장 긴 시간으로 둔다.
+ * <p>
+ * 인스턴스 목록이 바뀌면 목록에 없는 인스턴스의 상태를 지워 scale in 된 인스턴스의 상태가 쌓이지 않도록 한다.
+ */
+public class InstanceScores implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstanceScores.class);
+
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final long decayNanos;
+    private final double minRequests;
+    private final double errorRateThreshold;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxEjectionPercent;
+    private final long abandonAfterNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, InstanceStats>> services = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RequestKey, Pending> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<ServiceInstance>> instanceLists = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong();
+
+    public InstanceScores(
+        Duration decay,
+        int minRequests,
+        double errorRateThreshold,
+        Duration baseEjection,
+        Duration maxEjection,
+        int maxEjectionPercent,
+        Duration abandonAfter
+    ) {
+        this(decay, minRequests, errorRateThreshold, baseEjection, maxEjection, maxEjectionPercent, abandonAfter,
+            System::nanoTime);
+    }
+
+    public InstanceScores(
+        Duration decay,
+        int minRequests,
+        double errorRateThreshold,
+        Duration baseEjection,
+        Duration maxEjection,
+        int maxEjectionPercent,
+        Duration abandonAfter,
+        LongSupplier nanoClock
+    ) {
+        this.decayNanos = decay.toNanos();
+        this.minRequests = minRequests;
+        this.errorRateThreshold = errorRateThreshold;
+        this.baseEjectionNanos = baseEjection.toNanos();
+        this.maxEjectionNanos = maxEjection.toNanos();
+        this.maxEjectionPercent = maxEjectionPercent;
+        this.abandonAfterNanos = abandonAfter.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+            && ResponseData.class.isAssignableFrom(responseClass)
+            && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        InstanceStats stats = stats(lbResponse.getServer());
+        stats.start();
+        pending.put(new RequestKey(request), new Pending(stats, now));
+        sweepAbandoned(now);
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Pending started = pending.remove(new RequestKey(completionContext.getLoadBalancerRequest()));
+        if (started == null) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        boolean failed = isFailure(completionContext);
+
+        started.stats().complete(now - started.startNanos(), failed, now);
+        if (failed && started.stats().ejectIfFailing(minRequests, errorRateThreshold, baseEjectionNanos, maxEjectionNanos, now)) {
+            LOG.warn("Ejected {} of {} because of a high error rate",
+                started.stats().instance(), completionContext.getLoadBalancerResponse().getServer().getServiceId());
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return !(completionContext.getThrowable() instanceof DeadlineExceededException);
+        }
+        ResponseData response = completionContext.getClientResponse();
+        if (response == null || response.getHttpStatus() == null) {
+            return false;
+        }
+        return response.getHttpStatus().is5xxServerError()
+            && !response.getHttpStatus().isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * 제외되지 않은 인스턴스를 반환한다. 제외된 인스턴스가 maxEjectionPercent 를 넘으면 제외되지 않은 것으로 본다.
+     * 한 인스턴스의 장애로 나머지가 모두 과부하 상태가 되거나, 전체 장애 시 요청을 보낼 곳이 없어지는 것을 막기 위해서다.
+     */
+    List<ServiceInstance> available(List<ServiceInstance> instances) {
+        long now = nanoClock.getAsLong();
+        List<ServiceInstance> available = instances.stream()
+            .filter(instance -> !stats(instance).isEjected(now))
+            .toList();
+        int ejected = instances.size() - available.size();
+        if (available.isEmpty() || ejected * 100 > instances.size() * maxEjectionPercent) {
+            return instances;
+        }
+        return available;
+    }
+
+    /**
+     * load balancer 가 받은 인스턴스 목록에 없는 인스턴스의 상태를 지운다.
+     * 목록은 ServiceInstanceListSupplier 가 캐시하므로 이전과 같은 객체이면 비교하지 않는다.
+     */
+    void retain(String serviceId, List<ServiceInstance> instances) {
+        String id = serviceId.toLowerCase();
+        if (instanceLists.put(id, instances) == instances) {
+            return;
+        }
+        ConcurrentMap<String, InstanceStats> stats = services.get(id);
+        if (stats == null) {
+            return;
+        }
+        Set<String> addresses = instances.stream()
+            .map(InstanceScores::addressOf)
+            .collect(Collectors.toSet());
+        stats.keySet().removeIf(address -> {
+            if (addresses.contains(address)) {
+                return false;
+            }
+            LOG.debug("Removed the scores of {} which left {}", address, id);
+            return true;
+        });
+    }
+
+    long cost(ServiceInstance instance) {
+        return stats(instance).cost();
+    }
+
+    /**
+     * 서비스별 인스턴스 상태. cost 가 작은 인스턴스부터 정렬한다.
+     */
+    public Map<String, List<InstanceScore>> scores() {
+        long now = nanoClock.getAsLong();
+        Map<String, List<InstanceScore>> scores = new TreeMap<>();
+        services.forEach((serviceId, instances) -> scores.put(serviceId, instances.values().stream()
+            .map(stats -> stats.score(now))
+            .sorted(Comparator.comparingLong(InstanceScore::cost))
+            .toList()));
+        return scores;
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return services.computeIfAbsent(instance.getServiceId().toLowerCase(), id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(addressOf(instance), key -> new InstanceStats(key, decayNanos));
+    }
+
+    private static String addressOf(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private void sweepAbandoned(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        pending.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().startNanos() < abandonAfterNanos) {
+                return false;
+            }
+            entry.getValue().stats().abandon();
+            return true;
+        });
+    }
+
+    private record Pending(InstanceStats stats, long startNanos) {
+    }
+
+    /**
+     * 요청 객체의 equals 는 내용을 비교하므로 같은 요청을 동시에 보내면 구분할 수 없다. 객체 자체로 비교한다.
+     */
+    private record RequestKey(Object request) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RequestKey other && other.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
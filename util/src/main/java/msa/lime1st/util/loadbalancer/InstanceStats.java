@@ -0,0 +1,100 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인스턴스 하나의 응답 시간, 처리 중인 요청 수, 오류율.
+ * <p>
+ * 응답 시간과 오류율은 시간에 따라 감쇠하는 EWMA 다. 관측 간격이 decayNanos 만큼 벌어지면 이전 값의 비중이 1/e 로 줄어든다.
+ * 응답 시간은 이전 평균보다 느린 응답이 오면 바로 그 값으로 올리고(peak EWMA), 빨라질 때는 천천히 내려간다.
+ * 느려지기 시작한 인스턴스를 빨리 피하기 위해서다.
+ */
+final class InstanceStats {
+
+    private final String instance;
+    private final long decayNanos;
+
+    private long latencyNanos;
+    private long lastObservedNanos;
+    private boolean observed;
+    private double requests;
+    private double failures;
+    private int inflight;
+    private long ejectedUntilNanos;
+    private int ejections;
+
+    InstanceStats(String instance, long decayNanos) {
+        this.instance = instance;
+        this.decayNanos = decayNanos;
+    }
+
+    String instance() {
+        return instance;
+    }
+
+    synchronized void start() {
+        inflight++;
+    }
+
+    synchronized void abandon() {
+        inflight = Math.max(0, inflight - 1);
+    }
+
+    synchronized void complete(long latency, boolean failed, long now) {
+        inflight = Math.max(0, inflight - 1);
+
+        double weight = observed ? Math.exp(-(double) (now - lastObservedNanos) / decayNanos) : 0;
+        latencyNanos = latency > latencyNanos
+            ? latency
+            : (long) (latencyNanos * weight + latency * (1 - weight));
+        requests = requests * weight + 1;
+        failures = failures * weight + (failed ? 1 : 0);
+        lastObservedNanos = now;
+        observed = true;
+    }
+
+    /**
+     * 처리 중인 요청이 많고 응답이 느릴수록 값이 크다.
+     * 아직 응답을 받지 못한 인스턴스는 처리 중인 요청이 없으면 0 이고, 있으면 응답을 받을 때까지 다른 인스턴스보다 뒤로 보낸다.
+     */
+    synchronized long cost() {
+        if (!observed) {
+            return inflight == 0 ? 0 : Long.MAX_VALUE / 2 + inflight;
+        }
+        return Math.max(1, latencyNanos) * (inflight + 1);
+    }
+
+    synchronized boolean isEjected(long now) {
+        return ejectedUntilNanos - now > 0;
+    }
+
+    /**
+     * 최근 요청 수가 minRequests 이상이고 오류율이 threshold 이상이면 일정 시간 동안 제외한다.
+     * 연속으로 제외될 때마다 제외 시간을 두 배로 늘리고, 제외 기간이 끝난 뒤에는 새로 관측한 값으로 판단한다.
+     */
+    synchronized boolean ejectIfFailing(double minRequests, double threshold, long baseNanos, long maxNanos, long now) {
+        if (isEjected(now) || requests < minRequests || failures / requests < threshold) {
+            return false;
+        }
+        if (now - ejectedUntilNanos > maxNanos) {
+            ejections = 0;
+        }
+        long duration = Math.min(maxNanos, baseNanos << Math.min(ejections, 20));
+        ejectedUntilNanos = now + duration;
+        ejections++;
+        requests = 0;
+        failures = 0;
+        return true;
+    }
+
+    synchronized InstanceScore score(long now) {
+        return new InstanceScore(
+            instance,
+            TimeUnit.NANOSECONDS.toMicros(latencyNanos) / 1000.0,
+            inflight,
+            requests == 0 ? 0 : failures / requests,
+            isEjected(now),
+            isEjected(now) ? TimeUnit.NANOSECONDS.toMillis(ejectedUntilNanos - now) : 0,
+            cost());
+    }
+}
@@ -0,0 +1,100 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * power of two choices. 인스턴스 두 개를 무작위로 골라 InstanceScores 의 cost 가 작은 쪽으로 보낸다.
+ * <p>
+ * round robin 은 느려진 인스턴스에도 같은 비율로 요청을 보낸다.
+ * 전체 인스턴스 중 가장 좋은 것을 고르면 모든 composite 가 같은 인스턴스로 몰리므로, 두 개 중에서 고른다.
+ * 오류율이 높아 제외된 인스턴스는 후보에서 뺀다.
+ * <p>
+ * Reactor context 에 ChosenInstances 가 있으면(hedging) 앞선 요청이 간 인스턴스도 다른 후보가 있는 한 후보에서 뺀다.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceScores scores;
+
+    public LatencyAwareLoadBalancer(
+        ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+        String serviceId,
+        InstanceScores scores
+    ) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.scores = scores;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+            .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return Mono.deferContextual(context -> {
+            Optional<ChosenInstances> chosen = ChosenInstances.from(context);
+            return supplier.get(request)
+                .next()
+                .map(instances -> {
+                    Response<ServiceInstance> response = choose(instances, chosen);
+                    if (response.hasServer()) {
+                        chosen.ifPresent(c -> c.add(response.getServer()));
+                        if (supplier instanceof SelectedInstanceCallback callback) {
+                            callback.selectedServiceInstance(response.getServer());
+                        }
+                    }
+                    return response;
+                });
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, Optional<ChosenInstances> chosen) {
+        if (instances.isEmpty()) {
+            LOG.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        scores.retain(serviceId, instances);
+
+        List<ServiceInstance> candidates = excludeChosen(scores.available(instances), chosen);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(scores.cost(a) <= scores.cost(b) ? a : b);
+    }
+
+    private static List<ServiceInstance> excludeChosen(List<ServiceInstance> candidates, Optional<ChosenInstances> chosen) {
+        if (chosen.isEmpty()) {
+            return candidates;
+        }
+        List<ServiceInstance> others = candidates.stream()
+            .filter(instance -> !chosen.get().contains(instance))
+            .toList();
+        return others.isEmpty() ? candidates : others;
+    }
+}
@@ -0,0 +1,31 @@
+package msa.lime1st.util.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 서비스마다 만들어지는 load balancer child context 의 설정.
+ * <p>
+ * 사용하는 쪽에서 @LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class) 로 지정하고,
+ * InstanceScores 를 bean 으로 등록해야 한다.
+ * component scan 으로 application context 에 등록되면 모든 서비스가 load balancer 하나를 함께 쓰게 되므로 @Configuration 을 붙이지 않는다.
+ */
+public class LatencyAwareLoadBalancerConfig {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+        Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory,
+        InstanceScores instanceScores
+    ) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> supplier =
+            loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        return new LatencyAwareLoadBalancer(supplier, serviceId, instanceScores);
+    }
+}
@@ -0,0 +1,43 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 하위 서비스 호출에 round robin 대신 응답 시간과 처리 중인 요청 수를 보고 인스턴스를 고르는 load balancer 를 사용한다.
+ * 오류율이 높은 인스턴스는 일정 시간 동안 제외한다. 인스턴스별 상태는 /actuator/loadbalancer 에서 확인할 수 있다.
+ * <p>
+ * composite, gateway 가 함께 쓰는 설정으로 각 서비스에서 @Import 한다.
+ * loadbalancer 의존성이 없는 서비스도 msa.lime1st 를 component scan 하므로 @Configuration 을 붙이지 않는다.
+ */
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceScores instanceScores(
+        @Value("${app.loadbalancer.decaySeconds:10}") long decaySeconds,
+        @Value("${app.loadbalancer.minRequests:10}") int minRequests,
+        @Value("${app.loadbalancer.errorRateThreshold:0.5}") double errorRateThreshold,
+        @Value("${app.loadbalancer.baseEjectionSeconds:30}") long baseEjectionSeconds,
+        @Value("${app.loadbalancer.maxEjectionSeconds:300}") long maxEjectionSeconds,
+        @Value("${app.loadbalancer.maxEjectionPercent:50}") int maxEjectionPercent,
+        @Value("${app.loadbalancer.abandonAfterMillis:5000}") long abandonAfterMillis
+    ) {
+        return new InstanceScores(
+            Duration.ofSeconds(decaySeconds),
+            minRequests,
+            errorRateThreshold,
+            Duration.ofSeconds(baseEjectionSeconds),
+            Duration.ofSeconds(maxEjectionSeconds),
+            maxEjectionPercent,
+            Duration.ofMillis(abandonAfterMillis)
+        );
+    }
+
+    @Bean
+    public LoadBalancerScoresEndpoint loadBalancerScoresEndpoint(InstanceScores instanceScores) {
+        return new LoadBalancerScoresEndpoint(instanceScores);
+    }
+}
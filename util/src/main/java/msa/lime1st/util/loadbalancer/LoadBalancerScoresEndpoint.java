@@ -0,0 +1,32 @@
+package msa.lime1st.util.loadbalancer;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * GET /actuator/loadbalancer, GET /actuator/loadbalancer/{serviceId}
+ * <p>
+ * load balancer 가 인스턴스를 고를 때 사용하는 응답 시간, 처리 중인 요청 수, 오류율과 제외 여부를 보여 준다.
+ */
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerScoresEndpoint {
+
+    private final InstanceScores scores;
+
+    public LoadBalancerScoresEndpoint(InstanceScores scores) {
+        this.scores = scores;
+    }
+
+    @ReadOperation
+    public Map<String, List<InstanceScore>> scores() {
+        return scores.scores();
+    }
+
+    @ReadOperation
+    public List<InstanceScore> service(@Selector String serviceId) {
+        return scores.scores().getOrDefault(serviceId.toLowerCase(), List.of());
+    }
+}
@@ -0,0 +1,136 @@
+package msa.lime1st.util.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * 검증이 끝난 토큰을 캐시해 같은 토큰으로 다시 요청하면 서명 검증(RSA)을 건너뛴다.
+ * <p>
+ * key 는 토큰 문자열의 SHA-256 이고, 항목은 토큰의 exp 까지만 사용한다. exp 가 없는 토큰은 캐시하지 않는다.
+ * 크기가 maxSize 를 넘으면 가장 오래 사용하지 않은 항목부터 제거한다(LRU). 만료된 항목은 조회할 때 제거하고,
+ * 다시 조회되지 않는 만료된 항목은 LRU 로 밀려나므로 저장할 때 전체를 훑지 않는다.
+ * 캐시하는 것은 검증에 성공한 토큰뿐이므로, 검증에 실패한 토큰은 매번 delegate 로 검증한다.
+ * <p>
+ * 메트릭: jwt.decoder.cache.gets{result=hit|miss}, jwt.decoder.cache.hit.ratio, jwt.decoder.cache.size
+ */
+public class CachingJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Jwt> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingJwtDecoder(ReactiveJwtDecoder delegate, int maxSize, MeterRegistry registry) {
+        this(delegate, maxSize, registry, Clock.systemUTC());
+    }
+
+    public CachingJwtDecoder(ReactiveJwtDecoder delegate, int maxSize, MeterRegistry registry, Clock clock) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > CachingJwtDecoder.this.maxSize;
+            }
+        };
+
+        FunctionCounter.builder("jwt.decoder.cache.gets", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("jwt.decoder.cache.gets", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("jwt.decoder.cache.hit.ratio", this, CachingJwtDecoder::hitRatio)
+            .register(registry);
+        Gauge.builder("jwt.decoder.cache.size", this, CachingJwtDecoder::size)
+            .register(registry);
+    }
+
+    /**
+     * JwkSetStore 의 키로 서명을 검증하는 NimbusReactiveJwtDecoder 를 캐시로 감싼다.
+     * issuerUri 가 있으면 iss claim 도 검증한다.
+     */
+    public static CachingJwtDecoder withJwkSetStore(
+        JwkSetStore jwkSetStore,
+        String issuerUri,
+        int maxSize,
+        MeterRegistry registry
+    ) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(jwkSetStore::keys).build();
+        decoder.setJwtValidator(issuerUri == null || issuerUri.isEmpty()
+            ? JwtValidators.createDefault()
+            : JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new CachingJwtDecoder(decoder, maxSize, registry);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String key = hash(token);
+        Jwt cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+        misses.increment();
+        return delegate.decode(token)
+            .doOnNext(jwt -> put(key, jwt));
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private synchronized Jwt get(String key) {
+        Jwt jwt = cache.get(key);
+        if (jwt != null && isExpired(jwt, clock.instant())) {
+            cache.remove(key);
+            return null;
+        }
+        return jwt;
+    }
+
+    private synchronized void put(String key, Jwt jwt) {
+        if (jwt.getExpiresAt() == null) {
+            return;
+        }
+        cache.put(key, jwt);
+    }
+
+    private static boolean isExpired(Jwt jwt, Instant now) {
+        return !now.isBefore(jwt.getExpiresAt());
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
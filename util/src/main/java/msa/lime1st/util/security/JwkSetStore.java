@@ -0,0 +1,243 @@
+package msa.lime1st.util.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * authorization 서버의 JWK Set 을 메모리에 두고, path 가 있으면 마지막으로 받은 JWK Set 을 파일에 저장한다.
+ * <p>
+ * 시작할 때 파일에서 JWK Set 을 읽으므로 authorization 서버가 아직 올라오지 않았어도 토큰을 검증할 수 있다.
+ * 파일의 키로 토큰을 검증하므로 다른 사용자가 쓸 수 있는 파일은 읽지 않고, 디렉터리와 파일은 소유자만 접근하도록 만든다.
+ * issuer discovery 는 처음 JWK Set 을 받을 때 한 번만 하고, 알아낸 jwks_uri 도 함께 저장한다.
+ * <p>
+ * refreshInterval 이 지나면 검증은 가지고 있는 JWK Set 으로 하고 백그라운드에서 새로 받아 온다.
+ * 토큰의 kid 가 JWK Set 에 없거나(키 교체) 아직 JWK Set 이 없을 때만 새 JWK Set 을 기다리며, refreshTimeout 이 상한이다.
+ * 받아 오지 못하면 가지고 있는 JWK Set 을 계속 사용하고, 다시 시도하는 것은 minRefreshInterval 에 한 번으로 제한한다.
+ */
+public class JwkSetStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwkSetStore.class);
+
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private final String issuerUri;
+    private final String jwkSetUri;
+    private final Path path;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final Duration refreshTimeout;
+    private final WebClient webClient;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot;
+    private volatile Instant lastRefreshAttempt = Instant.EPOCH;
+    private Mono<Snapshot> refreshing;
+
+    /**
+     * @param issuerUri  jwkSetUri 가 없을 때 discovery 에 사용한다
+     * @param jwkSetUri  비어 있으면 issuerUri 로 discovery 한다
+     * @param path       null 이면 JWK Set 을 메모리에만 둔다
+     */
+    public JwkSetStore(
+        String issuerUri,
+        String jwkSetUri,
+        Path path,
+        Duration refreshInterval,
+        Duration minRefreshInterval,
+        Duration refreshTimeout,
+        WebClient webClient
+    ) {
+        this.issuerUri = issuerUri;
+        this.jwkSetUri = jwkSetUri;
+        this.path = path;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.refreshTimeout = refreshTimeout;
+        this.webClient = webClient;
+        this.snapshot = load();
+    }
+
+    /**
+     * NimbusReactiveJwtDecoder.withJwkSource 에 넘기는 JWK source.
+     */
+    public Flux<JWK> keys(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            return refresh().flatMapIterable(fetched -> selector.select(fetched.jwkSet()));
+        }
+
+        List<JWK> keys = selector.select(current.jwkSet());
+        // authorization 서버가 응답하지 않는 동안 요청마다 다시 시도하지 않도록 간격을 둔다.
+        if (!refreshAllowed()) {
+            return Flux.fromIterable(keys);
+        }
+
+        if (keys.isEmpty()) {
+            return refresh()
+                .map(fetched -> selector.select(fetched.jwkSet()))
+                .onErrorResume(ex -> {
+                    LOG.warn("Failed to refresh the JWK Set, will use the one fetched at {}: {}", current.fetchedAt(), ex.toString());
+                    return Mono.just(keys);
+                })
+                .flatMapIterable(selected -> selected);
+        }
+
+        if (current.fetchedAt().plus(refreshInterval).isBefore(Instant.now())) {
+            refresh().subscribe(
+                fetched -> LOG.debug("Refreshed the JWK Set in the background"),
+                ex -> LOG.warn("Failed to refresh the JWK Set, will use the one fetched at {}: {}", current.fetchedAt(), ex.toString()));
+        }
+        return Flux.fromIterable(keys);
+    }
+
+    private boolean refreshAllowed() {
+        return lastRefreshAttempt.plus(minRefreshInterval).isBefore(Instant.now());
+    }
+
+    /**
+     * 동시에 여러 요청이 갱신을 시작해도 JWK Set 은 한 번만 받아 온다.
+     */
+    private synchronized Mono<Snapshot> refresh() {
+        if (refreshing == null) {
+            lastRefreshAttempt = Instant.now();
+            refreshing = resolveJwkSetUri()
+                .flatMap(uri -> webClient.get().uri(uri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .map(body -> new Snapshot(uri, parse(body), Instant.now())))
+                .timeout(refreshTimeout)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(fetched -> {
+                    snapshot = fetched;
+                    persist(fetched);
+                })
+                .doFinally(signal -> clearRefreshing())
+                .cache();
+        }
+        return refreshing;
+    }
+
+    private synchronized void clearRefreshing() {
+        refreshing = null;
+    }
+
+    private Mono<String> resolveJwkSetUri() {
+        if (jwkSetUri != null && !jwkSetUri.isEmpty()) {
+            return Mono.just(jwkSetUri);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            return Mono.just(current.jwkSetUri());
+        }
+        return webClient.get().uri(issuerUri + DISCOVERY_PATH)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+            })
+            .map(configuration -> (String) configuration.get("jwks_uri"));
+    }
+
+    private Snapshot load() {
+        if (path == null || !Files.exists(path)) {
+            return null;
+        }
+        try {
+            if (!ownedByCurrentUser(path)) {
+                LOG.warn("Ignoring the JWK Set in {}, it is not owned by the current user or is writable by others", path);
+                return null;
+            }
+            Map<String, Object> stored = mapper.readValue(path.toFile(), new TypeReference<>() {
+            });
+            @SuppressWarnings("unchecked")
+            Map<String, Object> keys = (Map<String, Object>) stored.get("keys");
+            Snapshot loaded = new Snapshot(
+                (String) stored.get("jwkSetUri"),
+                JWKSet.parse(keys),
+                Instant.parse((String) stored.get("fetchedAt")));
+            LOG.info("Loaded {} keys fetched at {} from {}", loaded.jwkSet().getKeys().size(), loaded.fetchedAt(), path);
+            return loaded;
+        } catch (IOException | ParseException | RuntimeException e) {
+            LOG.warn("Failed to load the JWK Set from {}, will fetch it: {}", path, e.toString());
+            return null;
+        }
+    }
+
+    private void persist(Snapshot fetched) {
+        if (path == null) {
+            return;
+        }
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("jwkSetUri", fetched.jwkSetUri());
+        stored.put("fetchedAt", fetched.fetchedAt().toString());
+        stored.put("keys", fetched.jwkSet().toJSONObject(true));
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (isPosix(parent)) {
+                Files.createDirectories(parent, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+            } else {
+                Files.createDirectories(parent);
+            }
+            // POSIX 에서 createTempFile 은 소유자만 읽고 쓸 수 있는 파일(rw-------)을 만든다.
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            mapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to persist the JWK Set to {}: {}", path, e.toString());
+        }
+    }
+
+    private static boolean ownedByCurrentUser(Path file) throws IOException {
+        if (!isPosix(file)) {
+            return true;
+        }
+        UserPrincipal currentUser = file.getFileSystem().getUserPrincipalLookupService()
+            .lookupPrincipalByName(System.getProperty("user.name"));
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(file);
+        return Files.getOwner(file).equals(currentUser)
+            && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+            && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    private static boolean isPosix(Path file) {
+        return file.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK Set: " + e.getMessage(), e);
+        }
+    }
+
+    private record Snapshot(String jwkSetUri, JWKSet jwkSet, Instant fetchedAt) {
+    }
+}
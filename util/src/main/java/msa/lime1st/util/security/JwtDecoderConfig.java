@@ -0,0 +1,44 @@
+package msa.lime1st.util.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * resource server 인 composite, gateway 가 함께 쓰는 ReactiveJwtDecoder 설정. 각 서비스의 SecurityConfig 에서 @Import 한다.
+ * <p>
+ * product 등 security 의존성이 없는 서비스도 msa.lime1st 를 component scan 하므로 @Configuration 을 붙이지 않는다.
+ */
+public class JwtDecoderConfig {
+
+    /**
+     * 검증한 토큰을 캐시하고, app.jwk-set.path 가 있으면 마지막으로 받은 JWK Set 을 파일에 저장하는 decoder.
+     * path 가 없으면 JWK Set 을 메모리에만 둔다.
+     */
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(
+        @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri,
+        @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String jwkSetUri,
+        @Value("${app.jwk-set.path:}") String jwkSetPath,
+        @Value("${app.jwk-set.refreshIntervalSeconds:300}") long refreshIntervalSeconds,
+        @Value("${app.jwk-set.minRefreshIntervalSeconds:30}") long minRefreshIntervalSeconds,
+        @Value("${app.jwk-set.refreshTimeoutMillis:2000}") long refreshTimeoutMillis,
+        @Value("${app.jwt-cache.maxSize:10000}") int cacheMaxSize,
+        MeterRegistry registry
+    ) {
+        JwkSetStore jwkSetStore = new JwkSetStore(
+            issuerUri,
+            jwkSetUri,
+            jwkSetPath.isEmpty() ? null : Path.of(jwkSetPath),
+            Duration.ofSeconds(refreshIntervalSeconds),
+            Duration.ofSeconds(minRefreshIntervalSeconds),
+            Duration.ofMillis(refreshTimeoutMillis),
+            WebClient.create()
+        );
+        return CachingJwtDecoder.withJwkSetStore(jwkSetStore, issuerUri, cacheMaxSize, registry);
+    }
+}
@@ -0,0 +1,174 @@
+package msa.lime1st.util.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import msa.lime1st.util.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+class LatencyAwareLoadBalancerTests {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+    private final InstanceScores scores = new InstanceScores(
+        Duration.ofSeconds(10), 10, 0.5, Duration.ofSeconds(30), Duration.ofSeconds(300), 50,
+        Duration.ofSeconds(60), now::get);
+
+    private final ServiceInstance fast = instance("10.0.0.1");
+    private final ServiceInstance slow = instance("10.0.0.2");
+    private final ServiceInstance failing = instance("10.0.0.3");
+
+    @Test
+    void prefersFasterInstance() {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        for (int i = 0; i < 20; i++) {
+            call(fast, Duration.ofMillis(10), false);
+            call(slow, Duration.ofMillis(500), false);
+        }
+
+        // 후보가 두 개뿐이면 항상 둘을 비교하므로 빠른 인스턴스만 고른다.
+        for (int i = 0; i < 100; i++) {
+            assertEquals(fast, loadBalancer.choose().block().getServer());
+        }
+    }
+
+    @Test
+    void avoidsInstanceWithManyRequestsInFlight() {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        call(fast, Duration.ofMillis(10), false);
+        call(slow, Duration.ofMillis(30), false);
+
+        // 빠른 인스턴스라도 처리 중인 요청이 많으면 다른 인스턴스로 보낸다.
+        for (int i = 0; i < 5; i++) {
+            scores.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(fast));
+        }
+
+        assertEquals(slow, loadBalancer.choose().block().getServer());
+    }
+
+    @Test
+    void ejectsInstanceWithHighErrorRate() {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer(fast, slow, failing);
+        for (int i = 0; i < 15; i++) {
+            call(fast, Duration.ofMillis(10), false);
+            call(slow, Duration.ofMillis(10), false);
+            call(failing, Duration.ofMillis(1), true);
+        }
+
+        assertTrue(score(failing).ejected());
+        for (int i = 0; i < 100; i++) {
+            assertFalse(failing.equals(loadBalancer.choose().block().getServer()));
+        }
+
+        // 제외 기간이 지나면 다시 후보가 된다.
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertFalse(score(failing).ejected());
+    }
+
+    @Test
+    void avoidsInstanceChosenForAnEarlierAttempt() {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        for (int i = 0; i < 20; i++) {
+            call(fast, Duration.ofMillis(10), false);
+            call(slow, Duration.ofMillis(500), false);
+        }
+        ChosenInstances chosen = new ChosenInstances();
+
+        // hedging 의 두 번째 요청은 첫 번째 요청이 간 인스턴스가 빠르더라도 다른 인스턴스로 보낸다.
+        assertEquals(fast, choose(loadBalancer, chosen));
+        assertEquals(slow, choose(loadBalancer, chosen));
+        // 다른 후보가 없으면 이미 고른 인스턴스 중에서 고른다.
+        assertEquals(fast, choose(loadBalancer, chosen));
+    }
+
+    @Test
+    void doesNotCountDeadlineExceededAsFailure() {
+        for (int i = 0; i < 15; i++) {
+            call(failing, Duration.ofMillis(1), new DeadlineExceededException("Request deadline exceeded"));
+        }
+
+        // deadline 이 지나 중단된 요청은 인스턴스의 오류가 아니므로 제외하지 않는다.
+        assertFalse(score(failing).ejected());
+    }
+
+    @Test
+    void releasesAbandonedRequests() {
+        scores.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(fast));
+        assertEquals(1, score(fast).inflight());
+
+        // 취소되어 onComplete 가 호출되지 않은 요청은 abandonAfter 가 지나면 처리 중인 요청 수에서 뺀다.
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        call(slow, Duration.ofMillis(10), false);
+
+        assertEquals(0, score(fast).inflight());
+    }
+
+    @Test
+    void forgetsInstancesThatLeftTheService() {
+        call(fast, Duration.ofMillis(10), false);
+        call(failing, Duration.ofMillis(10), false);
+        assertEquals(2, scores.scores().get("product").size());
+
+        // failing 이 scale in 되어 인스턴스 목록에서 빠지면 그 상태도 지운다.
+        loadBalancer(fast, slow).choose().block();
+
+        assertEquals(List.of("10.0.0.1:8080", "10.0.0.2:8080"), scores.scores().get("product").stream()
+            .map(InstanceScore::instance)
+            .sorted()
+            .toList());
+    }
+
+    private LatencyAwareLoadBalancer loadBalancer(ServiceInstance... instances) {
+        return new LatencyAwareLoadBalancer(
+            new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from("product", instances)), "product", scores);
+    }
+
+    private ServiceInstance choose(LatencyAwareLoadBalancer loadBalancer, ChosenInstances chosen) {
+        return loadBalancer.choose()
+            .contextWrite(context -> ChosenInstances.put(context, chosen))
+            .block()
+            .getServer();
+    }
+
+    private void call(ServiceInstance instance, Duration latency, boolean failed) {
+        call(instance, latency, failed ? new RuntimeException("failed") : null);
+    }
+
+    private void call(ServiceInstance instance, Duration latency, Throwable error) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        scores.onStartRequest(request, response);
+        now.addAndGet(latency.toNanos());
+        scores.onComplete(error != null
+            ? new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.FAILED, error, request, response)
+            : new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+    }
+
+    private InstanceScore score(ServiceInstance instance) {
+        List<InstanceScore> instances = scores.scores().get("product");
+        return instances.stream()
+            .filter(score -> score.instance().equals(instance.getHost() + ":" + instance.getPort()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance("product-" + host, "product", host, 8080, false);
+    }
+}
@@ -0,0 +1,237 @@
+package msa.lime1st.util.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class CachingJwtDecoderTests {
+
+    // 연결할 수 없는 주소. JWK Set 을 새로 받아 오려고 하면 실패한다.
+    private static final String UNREACHABLE_JWK_SET_URI = "http://localhost:1/oauth2/jwks";
+
+    @TempDir
+    Path tempDir;
+
+    private RSAKey key;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    }
+
+    @Test
+    void skipsVerificationForCachedToken() throws JOSEException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger verifications = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusSeconds(60)));
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, registry);
+        String token = token(Instant.now().plusSeconds(60));
+
+        decoder.decode(token).block();
+        decoder.decode(token).block();
+
+        assertEquals(1, verifications.get());
+        assertEquals(1.0, registry.get("jwt.decoder.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("jwt.decoder.cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void verifiesAgainAfterExpiry() throws JOSEException {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(60);
+        AtomicInteger verifications = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, expiresAt));
+        };
+        MutableClock clock = new MutableClock(now);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, new SimpleMeterRegistry(), clock);
+        String token = token(expiresAt);
+
+        decoder.decode(token).block();
+        clock.now = expiresAt;
+        decoder.decode(token).block();
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void staysWithinMaxSize() throws JOSEException {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(
+            token -> Mono.just(jwt(token, Instant.now().plusSeconds(60))), 10, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            decoder.decode(token(Instant.now().plusSeconds(60 + i))).block();
+        }
+
+        assertEquals(10, decoder.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedToken() throws JOSEException {
+        AtomicInteger verifications = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusSeconds(60)));
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 2, new SimpleMeterRegistry());
+        String first = token(Instant.now().plusSeconds(60));
+        String second = token(Instant.now().plusSeconds(61));
+        String third = token(Instant.now().plusSeconds(62));
+
+        decoder.decode(first).block();
+        decoder.decode(second).block();
+        decoder.decode(first).block();
+        // 가득 찬 상태에서 새 토큰을 저장하면 가장 오래 사용하지 않은 second 를 제거한다.
+        decoder.decode(third).block();
+        assertEquals(3, verifications.get());
+
+        decoder.decode(first).block();
+        assertEquals(3, verifications.get());
+        decoder.decode(second).block();
+        assertEquals(4, verifications.get());
+    }
+
+    @Test
+    void validatesWithPersistedJwkSetWhenAuthorizationServerIsDown() throws Exception {
+        Path path = tempDir.resolve("jwks.json");
+        persist(path, Instant.now());
+
+        CachingJwtDecoder decoder = CachingJwtDecoder.withJwkSetStore(
+            store(path, Duration.ofMinutes(5)), "", 100, new SimpleMeterRegistry());
+
+        Jwt jwt = decoder.decode(token(Instant.now().plusSeconds(60))).block();
+
+        assertEquals("user", jwt.getSubject());
+    }
+
+    @Test
+    void usesStaleJwkSetWhenRefreshFails() throws Exception {
+        Path path = tempDir.resolve("jwks.json");
+        persist(path, Instant.now().minus(Duration.ofDays(1)));
+
+        CachingJwtDecoder decoder = CachingJwtDecoder.withJwkSetStore(
+            store(path, Duration.ofMinutes(5)), "", 100, new SimpleMeterRegistry());
+
+        Jwt jwt = decoder.decode(token(Instant.now().plusSeconds(60))).block();
+
+        assertEquals("user", jwt.getSubject());
+    }
+
+    @Test
+    void ignoresJwkSetWritableByOthers() throws Exception {
+        Path path = tempDir.resolve("jwks.json");
+        persist(path, Instant.now());
+        assumeTrue(path.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+        // 다른 사용자가 바꿀 수 있는 파일의 키는 믿지 않으므로 JWK Set 이 없는 것과 같다.
+        CachingJwtDecoder decoder = CachingJwtDecoder.withJwkSetStore(
+            store(path, Duration.ofMinutes(5)), "", 100, new SimpleMeterRegistry());
+
+        String token = token(Instant.now().plusSeconds(60));
+
+        assertThrows(RuntimeException.class, () -> decoder.decode(token).block());
+    }
+
+    @Test
+    void rejectsTokenWithoutJwkSet() throws JOSEException {
+        CachingJwtDecoder decoder = CachingJwtDecoder.withJwkSetStore(
+            store(tempDir.resolve("missing.json"), Duration.ofMinutes(5)), "", 100, new SimpleMeterRegistry());
+
+        String token = token(Instant.now().plusSeconds(60));
+
+        assertThrows(RuntimeException.class, () -> decoder.decode(token).block());
+    }
+
+    private JwkSetStore store(Path path, Duration refreshInterval) {
+        return new JwkSetStore("", UNREACHABLE_JWK_SET_URI, path, refreshInterval, Duration.ZERO, Duration.ofSeconds(1),
+            WebClient.create());
+    }
+
+    private void persist(Path path, Instant fetchedAt) throws IOException {
+        new ObjectMapper().writeValue(path.toFile(), Map.of(
+            "jwkSetUri", UNREACHABLE_JWK_SET_URI,
+            "fetchedAt", fetchedAt.toString(),
+            "keys", new JWKSet(key.toPublicJWK()).toJSONObject(true)));
+    }
+
+    private String token(Instant expiresAt) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+            new JWTClaimsSet.Builder()
+                .subject("user")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+            .header("alg", "RS256")
+            .subject("user")
+            .issuedAt(expiresAt.minusSeconds(120))
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package msa.lime1st.util.benchmark;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+/**
+ * benchmark 는 시간이 오래 걸리므로 BENCHMARK=true 일 때만 실행한다.
+ * <p>
+ * 메서드에 붙이면 benchmark 테스트가 되고, 클래스에 붙이면 클래스 전체를 BENCHMARK=true 일 때만 실행한다
+ * (MySQL 컨테이너처럼 클래스 단위로 준비하는 비용이 큰 경우).
+ * BENCHMARK=true ./gradlew :microservices:composite:test --tests '*BenchmarkTests' -i
+ *
+ * @see BenchmarkReport
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Test
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public @interface Benchmark {
+}
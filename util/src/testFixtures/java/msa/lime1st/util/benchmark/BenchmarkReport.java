@@ -0,0 +1,66 @@
+package msa.lime1st.util.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * benchmark 결과를 표로 만든다. 각 행은 logger 로 남기고, close 할 때 build/reports/benchmarks/{name}.txt 에 저장한다.
+ * <p>
+ * 머리글과 행에 같은 format 을 사용하므로 format 은 폭만 지정한 %s 로 쓴다 (예: "%-10s %12s").
+ */
+public class BenchmarkReport implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BenchmarkReport.class);
+
+    private static final Path REPORT_DIR = Path.of("build", "reports", "benchmarks");
+
+    private final String name;
+    private final String format;
+    private final List<String> lines = new ArrayList<>();
+
+    private BenchmarkReport(String name, String format) {
+        this.name = name;
+        this.format = format;
+    }
+
+    public static BenchmarkReport of(String name, String format, Object... header) {
+        BenchmarkReport report = new BenchmarkReport(name, format);
+        report.row(header);
+        return report;
+    }
+
+    public void row(Object... values) {
+        line(String.format(format, Arrays.stream(values).map(String::valueOf).toArray()));
+    }
+
+    /**
+     * 표 형식이 아닌 참고 정보(EXPLAIN 결과 등)를 남긴다.
+     */
+    public void note(String note) {
+        line(note);
+    }
+
+    @Override
+    public void close() {
+        Path file = REPORT_DIR.resolve(name + ".txt");
+        try {
+            Files.createDirectories(REPORT_DIR);
+            Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write benchmark report: " + file, e);
+        }
+        LOG.info("Wrote benchmark report to {}", file.toAbsolutePath());
+    }
+
+    private void line(String line) {
+        lines.add(line);
+        LOG.info("[{}] {}", name, line);
+    }
+}